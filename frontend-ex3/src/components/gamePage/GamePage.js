@@ -10,7 +10,8 @@ import GameStatusBar from "./GameStatusBar";
 
 /**
  * GamePage component is the main container for the Hangman game.
- * It manages the game logic, state updates, score submission, and UI rendering.
+ * The game is played on the server, which keeps the word hidden: every guess is sent to it,
+ * and its answer holds the masked word, the guessed letters, and the score once the word is found.
  *
  * @returns {JSX.Element} The game page JSX
  * @constructor
@@ -20,26 +21,25 @@ function GamePage() {
     const location = useLocation();
     const navigate = useNavigate();
 
-    const { wordEntry, nickname } = location.state || {};
-    const { word, category, hint } = { ...wordEntry };
+    const { game, nickname } = location.state || {};
+    const { id, category, maskedWord } = { ...game };
 
     /**
-     * Redirects the user to home page if required data (word or nickname) is missing.
+     * Redirects the user to home page if required data (game or nickname) is missing.
      * Runs once on component mount or when dependencies change.
      */
     useEffect(() => {
-        if (!word || !nickname) {
+        if (!id || !nickname) {
             navigate('/');
         }
-    }, [word, nickname, navigate]);
+    }, [id, nickname, navigate]);
 
     const [gameState, setGameState] = useState({
-        word: word?.toLowerCase() || '',
-        hiddenWord: word ? Array(word.length).fill('_') : [],
+        hiddenWord: maskedWord ? maskedWord.split('') : [],
         guessedLetters: [],
         attemptsCounter: 0,
         failedAttempts: 0,
-        gameStatus: 'playing'    // 'playing', 'submitting-score', 'won', 'score-error'
+        gameStatus: 'playing'    // 'playing', 'won'
     });
 
     const [hintState, setHintState] = useState( {
@@ -47,17 +47,23 @@ function GamePage() {
         showHint: false
     });
 
-    // Add state to track current time from stopwatch
-    const [currentTime, setCurrentTime] = useState(0);
+    // API data fetching for guesses, whose answer is the game's new state
+    const [{ data, isLoading, isError, error }, sendGuess] = useDataApi({ url: '' }, null);
 
-    // API data fetching for score
-    const [{ data, isLoading, isError}, fetchScore, reset] = useDataApi({ url: '' }, null);
+    // API data fetching for the hint, which the server counts as used once fetched
+    const [{ data: hintData }, fetchHint] = useDataApi({ url: '' }, null);
 
     /**
      * Toggles the hint display when the hint button is pressed.
-     * Updates hintState to show or hide the hint text.
+     * The first press fetches the hint from the server.
      */
     const handleHintPressed = () => {
+        if (!hintState.pressed) {
+            fetchHint({
+                url: `/games/${id}/hint`,
+                method: 'POST'
+            });
+        }
         setHintState( {
             ...hintState,
             pressed: true,
@@ -66,21 +72,20 @@ function GamePage() {
     }
 
     /**
-     * Updates the current time state with the stopwatch's latest time.
-     * Uses setTimeout to defer update and avoid synchronous render issues.
+     * Sends a guess, a single letter or the whole word, to the server.
      *
-     * @param {number} time - The updated time in milliseconds
+     * @param {string} guess - The guessed letter or word
      */
-    const handleTimeUpdate = (time) => {
-        // Use setTimeout to defer the state update until after render
-        setTimeout(() => {
-            setCurrentTime(time);
-        }, 0);
+    const submitGuess = (guess) => {
+        sendGuess({
+            url: `/games/${id}/guess`,
+            method: 'POST',
+            data: { guess: guess }
+        });
     };
 
     /**
      * Handles a letter guess by the player.
-     * Updates guessed letters, hidden word, attempts and game status accordingly.
      *
      * @param {string} letter - The guessed letter
      */
@@ -89,34 +94,12 @@ function GamePage() {
         if (gameState.gameStatus !== 'playing' || gameState.guessedLetters.includes(letter)) {
             return;
         }
-
-        // Add letter to guessed letters
-        const newGuessedLetters = [...gameState.guessedLetters, letter];
-
-        // Check if the letter is in the word
-        const letterInWord = gameState.word.includes(letter);
-
-        // Update hidden word with correctly guessed letters
-        const newHiddenWord = gameState.word.split('').map((char, index) => {
-            if (newGuessedLetters.includes(char) || char === ' ') {
-                return char;
-            }
-            return gameState.hiddenWord[index];
-        });
-
-        // Update remaining attempts if guess was wrong
-        const newFailedAttempts = letterInWord
-            ? gameState.failedAttempts
-            : gameState.failedAttempts + 1;
-
-        handleStateAfterGuess(newHiddenWord,newGuessedLetters,
-            gameState.attemptsCounter + 1,newFailedAttempts);
+        submitGuess(letter);
     };
 
     /**
      * Handles a full word guess by the player.
-     * If correct, reveals the entire word and submits score.
-     * If wrong, updates guessed letters and failed attempts accordingly.
+     * A wrong word reveals nothing, and costs one failed attempt per hidden letter.
      *
      * @param {string} guessedWord - The guessed full word
      */
@@ -125,143 +108,38 @@ function GamePage() {
         if (gameState.gameStatus !== 'playing') {
             return;
         }
-
-        // Check if the guessed word is exactly correct
-        if (guessedWord === gameState.word) {
-            // If correct, reveal the entire word and win the game
-            setGameState({
-                ...gameState,
-                hiddenWord: gameState.word.split(''),
-                attemptsCounter: gameState.attemptsCounter + 1,
-                gameStatus: 'submitting-score'
-            });
-            // Submit score after state update
-            submitScore();
-            return;
-        }
-
-        // If word guess is wrong, extract all unique letters from the guessed word
-        const lettersInGuess = [...new Set(guessedWord.split('').filter(char => char !== ' '))];
-
-        // Add these letters to guessed letters (only new ones)
-        const newGuessedLetters = [...new Set([...gameState.guessedLetters, ...lettersInGuess])];
-
-        let newFailedAttempts = gameState.failedAttempts;
-
-        // Update hidden word with any correctly guessed letters
-        const newHiddenWord = gameState.word.split('').map((char, index) => {
-            if (newGuessedLetters.includes(char) || char === ' ') {
-                return char;
-            }
-            newFailedAttempts ++;
-            return gameState.hiddenWord[index];
-        });
-
-        handleStateAfterGuess(newHiddenWord,newGuessedLetters,
-            gameState.attemptsCounter + 1,newFailedAttempts);
+        submitGuess(guessedWord);
     };
 
     /**
-     * Updates the game state after a guess (letter or word).
-     * Checks for winning condition and submits score if won.
-     * Otherwise, updates guessed letters and attempts.
-     *
-     * @param {string[]} newHiddenWord - Updated hidden word array
-     * @param {string[]} newGuessedLetters - Updated guessed letters array
-     * @param {number} attemptsCounter - Updated attempts count
-     * @param {number} failedAttempts - Updated failed attempts count
-     */
-    const handleStateAfterGuess = (newHiddenWord,newGuessedLetters,attemptsCounter,failedAttempts) => {
-
-        // Check if game is won (no more hidden letters)
-        const isWon = !newHiddenWord.includes('_');
-
-        if (isWon) {
-            // Set status to submitting-score first
-            setGameState(prevState => ({
-                ...prevState,
-                hiddenWord: newHiddenWord,
-                guessedLetters: newGuessedLetters,
-                attemptsCounter: attemptsCounter,
-                failedAttempts: failedAttempts,
-                gameStatus: 'submitting-score'
-            }));
-            // Then submit score
-            submitScore();
-        }
-        else{
-            // Update game state normally for ongoing game
-            setGameState(prevState => ({
-                ...prevState,
-                hiddenWord: newHiddenWord,
-                guessedLetters: newGuessedLetters,
-                attemptsCounter: attemptsCounter,
-                failedAttempts: failedAttempts
-            }));
-        }
-    };
-
-    /**
-     * Sends the player's score to the backend API.
-     * Includes nickname, time taken, failed attempts, hint usage, and word length.
-     */
-    const submitScore = () => {
-        fetchScore({
-            url: '/api/scores',
-            method: 'POST',
-            data: {
-                nickname: nickname,
-                timeTakenMS: currentTime,
-                attempts: gameState.failedAttempts,
-                usedHint: hintState.pressed,
-                wordLength: word.length
-            }
-        });
-    };
-
-    /**
-     * Reacts to API submission results.
-     * If successful, sets game status to 'won'.
-     * If failed, sets game status to 'score-error'.
+     * Updates the game state from the server's answer to a guess.
+     * The game is won once the server reports it finished; its answer then holds the score and rank.
      */
     useEffect(() => {
-
-        if (gameState.gameStatus === 'submitting-score') {
-            if (!isLoading && !isError && data !== null) {
-                // Score submitted successfully
-                setGameState(prevState => ({
-                    ...prevState,
-                    gameStatus: 'won'
-                }));
-            } else if (!isLoading && isError) {
-                // Score submission failed
-                setGameState(prevState => ({
-                    ...prevState,
-                    gameStatus: 'score-error'
-                }));
-            }
-        }
-    }, [isLoading, isError, data, gameState.gameStatus]);
-
-    /**
-     * Handles retrying score submission in case of an error.
-     * Resets API hook state and re-submits the score.
-     */
-    const handleRetryScore = () => {
-
-        // Reset to clean state
-        reset();
+        if (!data) return;
 
         setGameState(prevState => ({
             ...prevState,
-            gameStatus: 'submitting-score'
+            hiddenWord: data.maskedWord.split(''),
+            guessedLetters: data.guessedLetters.split(''),
+            attemptsCounter: prevState.attemptsCounter + 1,
+            failedAttempts: data.attempts,
+            gameStatus: data.finished ? 'won' : 'playing'
         }));
+    }, [data]);
 
-        submitScore();
+    /**
+     * Turns an error answer into a message: either a plain message or a map of invalid fields.
+     *
+     * @param {*} error - The error payload returned by the server
+     * @returns {string} The message to show
+     */
+    const errorMessage = (error) => {
+        return typeof error === 'object' && error !== null ? Object.values(error).join(' ') : String(error);
     };
 
-    // If no word data, show loading or redirect
-    if (!word || !nickname) {
+    // If no game data, show loading or redirect
+    if (!id || !nickname) {
         return (
             <div className="min-vh-100 d-flex align-items-center justify-content-center bg-light">
                 <div className="text-center">
@@ -288,35 +166,26 @@ function GamePage() {
 
                 <div className="card bg-light border-0 shadow rounded-3 p-4">
 
-                    {/* Error state for score submission */}
-                    { (isError && gameState.gameStatus === 'score-error' && !isLoading) && (
+                    {/* Error state for a rejected guess, e.g. a word of the wrong length or an expired game */}
+                    { (isError && !isLoading) && (
                         <div className="alert alert-danger mb-4">
-                            <p className="mb-2">Error submitting your score. Please try again.</p>
-                            <button
-                                className="btn btn-outline-danger"
-                                onClick={handleRetryScore}
-                                disabled={gameState.gameStatus === 'submitting-score' || isLoading}
-                            >
-                                Retry Score Submission
-                            </button>
-                            <HomeButton buttonText="Back To Home"/>
+                            <p className="mb-0">{errorMessage(error)}</p>
                         </div>
                     )}
 
                     {/* Game won successfully */}
-                    { (gameState.gameStatus === 'won' && !isLoading && !isError) && (
-                        <EndGame data={data} word = {word}/>
+                    { gameState.gameStatus === 'won' && (
+                        <EndGame data={{ ...data, nickname: nickname }} word={gameState.hiddenWord.join('')}/>
                     )}
 
                     {/* Game is still being played */}
-                    {(gameState.gameStatus === 'playing' || (gameState.gameStatus === 'submitting-score' && !isError)) && (
+                    {gameState.gameStatus === 'playing' && (
                         <>
                             {/* Game Status Bar - Timer, Hint, and Attempts in one row using your components */}
                             <GameStatusBar
                                 gameStatus={gameState.gameStatus}
-                                onTimeUpdate={handleTimeUpdate}
                                 attemptsCounter={gameState.attemptsCounter}
-                                hint={hint}
+                                hint={hintData ? hintData.hint : 'Loading hint...'}
                                 hintState={hintState}
                                 onHintPressed={handleHintPressed}
                             />
@@ -329,27 +198,16 @@ function GamePage() {
                             <Keyboard
                                 gameState={gameState}
                                 handleGuess={handleGuess}
-                                isLoading={gameState.gameStatus === 'submitting-score' || isLoading}
+                                isLoading={isLoading}
                             />
 
                             <WordGuess
                                 gameState={gameState}
                                 handleWordGuess={handleWordGuess}
-                                isLoading={gameState.gameStatus === 'submitting-score' || isLoading}
+                                isLoading={isLoading}
                             />
 
                             <HomeButton buttonText="Exit Game"/>
-
-                            {/* Loading spinner overlay - only shows when submitting score */}
-                            {gameState.gameStatus === 'submitting-score' && (
-                                <div className="position-absolute top-0 start-0 w-100 h-100 d-flex flex-column justify-content-center align-items-center bg-light bg-opacity-90 rounded-3"
-                                     style={{ zIndex: 1000 }}>
-                                    <div className="spinner-border text-primary mb-3" style={{ width: '3rem', height: '3rem' }}>
-                                        <span className="visually-hidden">Loading...</span>
-                                    </div>
-                                    <p className="text-muted fw-medium">Submitting your score...</p>
-                                </div>
-                            )}
                         </>
                     )}
                 </div>
@@ -358,4 +216,4 @@ function GamePage() {
     );
 }
 
-export default GamePage;
\ No newline at end of file
+export default GamePage;
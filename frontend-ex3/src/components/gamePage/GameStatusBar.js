@@ -6,7 +6,7 @@ import HintSection from "./HintSection";
  *
  * @param {Object} props
  * @param {string} props.gameStatus - The current status of the game (e.g., 'playing', 'won').
- * @param {(time: number) => void} props.onTimeUpdate - Callback triggered on timer updates with elapsed time in milliseconds.
+ * @param {(time: number) => void} [props.onTimeUpdate] - Optional callback triggered on timer updates with elapsed time in milliseconds.
  * @param {number} props.attemptsCounter - Number of attempts the player has made.
  * @param {string} props.hint - The hint text to be displayed when enabled.
  * @param {Object} props.hintState - State object controlling hint visibility (e.g., { showHint: boolean }).
@@ -6,7 +6,7 @@ import React from "react";
  *
  * @component
  * @param {Object} props
- * @param {Object} props.gameState - Current game state containing guessed letters, word, and status.
+ * @param {Object} props.gameState - Current game state containing guessed letters, the masked word, and status.
  * @param {function} props.handleGuess - Callback function called when a letter button is clicked. Receives the guessed letter as argument.
  * @param {boolean} [props.isLoading=false] - Whether the game is currently loading; disables input if true.
  * @returns {JSX.Element} The interactive keyboard UI.
@@ -35,7 +35,7 @@ function Keyboard({gameState, handleGuess, isLoading = false}){
                         }
                         className={`btn rounded-3 fw-medium px-3 py-2 m-1 ${
                             gameState.guessedLetters.includes(letter)
-                                ? gameState.word.includes(letter)
+                                ? gameState.hiddenWord.includes(letter)
                                     ? 'btn-success'
                                     : 'btn-danger'
                                 : 'btn-outline-secondary'
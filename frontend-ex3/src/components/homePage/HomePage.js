@@ -71,11 +71,14 @@ function HomePage() {
             // This prevents stale error states from interfering
             reset();
 
-            // Use setConfig to trigger the API call
+            // Use setConfig to trigger the API call, which starts a game on the server
             setConfig({
-                url: `/wordEntry/getRandomWord?category=${encodeURIComponent(formData.category)}`,
-                method: 'GET',
-                data: null,
+                url: '/games',
+                method: 'POST',
+                data: {
+                    nickname: formData.nickname,
+                    category: formData.category
+                },
                 headers: {}
             });
         }
@@ -94,7 +97,7 @@ function HomePage() {
             setIsSubmitting(false);
             navigate('/game', {
                 state: {
-                    wordEntry: data,
+                    game: data,
                     nickname: formData.nickname
                 }
             });
@@ -59,6 +59,7 @@ function PlayerSetupForm ({handleSubmit, handleInputChange, isSubmitting, valida
                                             : ''
                                 }`}
                                 placeholder="Enter your nickname"
+                                maxLength={50}
                                 disabled={isSubmitting}
                             />
                             {validation.nickname === false && (
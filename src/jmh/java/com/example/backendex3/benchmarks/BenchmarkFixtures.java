@@ -0,0 +1,171 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import com.example.backendex3.storage.BinaryFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Builds repositories of a given size in a temporary directory for the benchmarks.
+ * The data is written straight to a snapshot file and loaded by the repository, so that setting up
+ * millions of entries does not go through the journal or the score log.
+ */
+public final class BenchmarkFixtures {
+
+    /** Number of distinct categories the generated words are spread over. */
+    public static final int CATEGORIES = 26;
+
+    /** Number of keys sampled from the generated data for the lookups of a benchmark. */
+    public static final int SAMPLE_SIZE = 1024;
+
+    /** Highest generated score. */
+    public static final int MAX_SCORE = 1_000_000;
+
+    private static final long SEED = 42;
+
+    /**
+     * A repository opened on a generated word bank, with keys sampled from it for lookups of words that exist.
+     *
+     * @param repository the opened repository
+     * @param ids        ids of the sampled entries
+     * @param words      words of the sampled entries
+     * @param categories every generated category
+     */
+    public record WordBank(WordRepository repository, String[] ids, String[] words, String[] categories) {}
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * Creates the temporary directory holding the files of one benchmark trial.
+     *
+     * @return the new directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createDirectory() throws IOException {
+        return Files.createTempDirectory("backend-ex3-jmh");
+    }
+
+    /**
+     * Deletes a directory created by {@link #createDirectory()} with everything in it.
+     *
+     * @param directory the directory to delete
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void deleteDirectory(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) return;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Returns the generated word of an index: its base-26 digits spelled with the letters a-z,
+     * so that every index has a distinct, purely alphabetic word.
+     *
+     * @param index the index of the word
+     * @return the word
+     */
+    public static String wordFor(int index) {
+        StringBuilder word = new StringBuilder("w");
+        int value = index;
+        do {
+            word.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return word.toString();
+    }
+
+    /**
+     * Returns the generated category of an index.
+     *
+     * @param index the index of the word
+     * @return the category, one of {@link #CATEGORIES} names
+     */
+    public static String categoryFor(int index) {
+        return "category" + (char) ('a' + index % CATEGORIES);
+    }
+
+    /**
+     * Returns the generated nickname of an index.
+     *
+     * @param index the index of the player
+     * @return the nickname
+     */
+    public static String nicknameFor(int index) {
+        return "player" + index;
+    }
+
+    /**
+     * Writes a word bank of the given size and opens a repository on it.
+     *
+     * @param directory  directory holding the repository's files
+     * @param size       number of words
+     * @param storage    {@code heap} or {@code mapped}
+     * @param durability {@code sync}, {@code async} or {@code batched}
+     * @return the opened repository and a sample of its keys
+     * @throws IOException if the word bank cannot be written
+     */
+    public static WordBank wordBank(Path directory, int size, String storage, String durability) throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] sampleIds = new String[Math.min(SAMPLE_SIZE, size)];
+        String[] sampleWords = new String[sampleIds.length];
+
+        List<WordEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new WordEntry(random.nextLong(), random.nextLong(), categoryFor(i), wordFor(i), "hint"));
+        }
+        for (int i = 0; i < sampleIds.length; i++) {
+            WordEntry entry = entries.get(random.nextInt(size));
+            sampleIds[i] = entry.getId();
+            sampleWords[i] = entry.getWord();
+        }
+        BinaryFormat.writeWords(directory.resolve("words.bin"), entries);
+        entries = null;     // Let the generated copy go before the repository loads its own
+
+        String[] categories = new String[Math.min(CATEGORIES, size)];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = categoryFor(i);
+        }
+
+        WordRepository repository = new WordRepository(directory.resolve("words.bin").toString(), storage,
+                directory.resolve("words.map").toString(), directory.resolve("words.journal").toString(),
+                1, 10000, durability, 100, 1000, new SimpleMeterRegistry());
+        return new WordBank(repository, sampleIds, sampleWords, categories);
+    }
+
+    /**
+     * Writes a leaderboard of the given size and opens a repository on it.
+     *
+     * @param directory  directory holding the repository's files
+     * @param size       number of players
+     * @param durability {@code sync}, {@code async} or {@code batched}
+     * @return the opened repository
+     * @throws IOException if the leaderboard cannot be written
+     */
+    public static ScoreRepository scoreRepository(Path directory, int size, String durability) throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Score> scores = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            scores.add(new Score(nicknameFor(i), random.nextInt(MAX_SCORE)));
+        }
+        BinaryFormat.writeScores(directory.resolve("scores.bin"), scores);
+        scores = null;
+
+        return new ScoreRepository(directory.resolve("scores.bin").toString(),
+                directory.resolve("scores.log").toString(), 1, 10000, durability, 100, 1000,
+                new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import com.example.backendex3.services.ScoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded runs mixing readers and writers on the same repository, as during a busy game night:
+ * players start games and look at the leaderboard while scores are submitted and the word bank is edited.
+ * Each group reports the average time of its readers and writers separately; compare them with the
+ * single-threaded results of {@link WordRepositoryBenchmark} and {@link ScoreBenchmark} to see the cost of contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ContentionBenchmark {
+
+    /**
+     * Word bank shared by every thread of the {@code words} group.
+     */
+    @State(Scope.Group)
+    public static class Words {
+
+        @Param({"100", "10000", "1000000", "10000000"})
+        private int size;
+
+        @Param({"async"})
+        private String durability;
+
+        private Path directory;
+        private BenchmarkFixtures.WordBank bank;
+
+        /**
+         * Writes the word bank and opens the repository on it.
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = BenchmarkFixtures.createDirectory();
+            bank = BenchmarkFixtures.wordBank(directory, size, "heap", durability);
+        }
+
+        /**
+         * Closes the repository and deletes its files.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            bank.repository().close();
+            BenchmarkFixtures.deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Leaderboard shared by every thread of the {@code scores} group.
+     */
+    @State(Scope.Group)
+    public static class Scores {
+
+        @Param({"100", "10000", "1000000", "10000000"})
+        private int size;
+
+        @Param({"async"})
+        private String durability;
+
+        private Path directory;
+        private ScoreRepository repository;
+        private ScoreService service;
+
+        /**
+         * Writes the leaderboard and opens the repository and the service on it.
+         */
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = BenchmarkFixtures.createDirectory();
+            repository = BenchmarkFixtures.scoreRepository(directory, size, durability);
+            service = new ScoreService(repository);
+        }
+
+        /**
+         * Closes the repository and deletes its files.
+         */
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            repository.close();
+            BenchmarkFixtures.deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Picks the word of a new game while words are being edited.
+     */
+    @Benchmark
+    @Group("words")
+    @GroupThreads(3)
+    public WordEntry findRandomByCategory(Words words) {
+        String[] categories = words.bank.categories();
+        return words.bank.repository().findRandomByCategory(categories[ThreadLocalRandom.current().nextInt(categories.length)]);
+    }
+
+    /**
+     * Looks an entry up by its id while words are being edited.
+     */
+    @Benchmark
+    @Group("words")
+    @GroupThreads(2)
+    public WordEntry findById(Words words) {
+        String[] ids = words.bank.ids();
+        return words.bank.repository().findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    /**
+     * Edits the hint of an entry, keeping its category and word.
+     */
+    @Benchmark
+    @Group("words")
+    @GroupThreads(1)
+    public boolean updateById(Words words) {
+        WordRepository repository = words.bank.repository();
+        String[] ids = words.bank.ids();
+        String id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        WordEntry entry = repository.findById(id);
+        return repository.updateById(id, new WordEntry(entry.getCategory(), entry.getWord(), "hint" + (char) ('a' + ThreadLocalRandom.current().nextInt(26))));
+    }
+
+    /**
+     * Submits the score of a finished game while others read the leaderboard.
+     */
+    @Benchmark
+    @Group("scores")
+    @GroupThreads(2)
+    public boolean saveScore(Scores scores) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return scores.repository.saveScore(new Score(BenchmarkFixtures.nicknameFor(random.nextInt(scores.size)),
+                random.nextInt(BenchmarkFixtures.MAX_SCORE)));
+    }
+
+    /**
+     * Reads the first page of the leaderboard while scores are submitted.
+     */
+    @Benchmark
+    @Group("scores")
+    @GroupThreads(3)
+    public List<Score> getScores(Scores scores) {
+        return scores.repository.getScores(0, 10);
+    }
+
+    /**
+     * Looks up a player's rank while scores are submitted.
+     */
+    @Benchmark
+    @Group("scores")
+    @GroupThreads(3)
+    public int getPlayersRank(Scores scores) throws IOException {
+        return scores.service.getPlayersRank(BenchmarkFixtures.nicknameFor(ThreadLocalRandom.current().nextInt(scores.size)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.GameSession;
+import com.example.backendex3.repositories.WordEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guesses per second of the {@link GameSession} guess engine on one thread, i.e. per core,
+ * for words of 5 to 100 letters; words of more than 64 letters use the fallback without position masks.
+ * Letter guesses follow English letter frequency, as a player's would, and a new game starts once the word is
+ * guessed, so {@code guessLetter} includes the share of starting a game that falls on each guess;
+ * {@code startGame} shows that cost on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuessEngineBenchmark {
+
+    private static final String LETTER_ORDER = "etaoinshrdlcumwfgypbvkjxqz";
+
+    @Param({"5", "12", "40", "100"})
+    private int wordLength;
+
+    private final UUID id = UUID.randomUUID();
+    private WordEntry[] words;
+    private int nextWord;
+    private GameSession session;
+    private int nextLetter;
+
+    /**
+     * Builds {@value BenchmarkFixtures#SAMPLE_SIZE} random words of the benchmarked length.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        words = new WordEntry[BenchmarkFixtures.SAMPLE_SIZE];
+        for (int i = 0; i < words.length; i++) {
+            char[] word = new char[wordLength];
+            for (int j = 0; j < wordLength; j++) {
+                word[j] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new WordEntry(random.nextLong(), random.nextLong(), "benchmark", new String(word), "hint");
+        }
+        session = nextGame();
+    }
+
+    /**
+     * Guesses the next letter of the current game, starting a new game once the word is guessed.
+     */
+    @Benchmark
+    public boolean guessLetter() {
+        boolean won = session.guessLetter(LETTER_ORDER.charAt(nextLetter++), 1);
+        if (won) {
+            session = nextGame();
+        }
+        return won;
+    }
+
+    /**
+     * Starts a game, computing the masks of its word.
+     */
+    @Benchmark
+    public GameSession startGame() {
+        return nextGame();
+    }
+
+    /**
+     * Starts a game with the next sample word.
+     */
+    private GameSession nextGame() {
+        nextLetter = 0;
+        WordEntry entry = words[nextWord++ & (words.length - 1)];
+        return new GameSession(id, "player", entry, 0);
+    }
+}
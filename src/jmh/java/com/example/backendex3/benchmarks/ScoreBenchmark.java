@@ -0,0 +1,94 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.example.backendex3.services.ScoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard reads and writes of {@link ScoreRepository} and {@link ScoreService}
+ * against leaderboards of 100 to 10M players.
+ * Submitted scores are random, so some improve the player's score and are logged while others are ignored,
+ * as in a real leaderboard. Pass {@code -p durability=sync} to include the wait for the log to be synced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ScoreBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"async"})
+    private String durability;
+
+    private Path directory;
+    private ScoreRepository repository;
+    private ScoreService service;
+
+    /**
+     * Writes the leaderboard and opens the repository and the service on it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createDirectory();
+        repository = BenchmarkFixtures.scoreRepository(directory, size, durability);
+        service = new ScoreService(repository);
+    }
+
+    /**
+     * Closes the repository and deletes its files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    /**
+     * Submits the score of a finished game for an existing player.
+     */
+    @Benchmark
+    public boolean saveScore() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Score score = new Score(BenchmarkFixtures.nicknameFor(random.nextInt(size)), random.nextInt(BenchmarkFixtures.MAX_SCORE));
+        return repository.saveScore(score);
+    }
+
+    /**
+     * Copies the whole leaderboard, as the unpaged leaderboard is served.
+     */
+    @Benchmark
+    public List<Score> getAllScores() {
+        return repository.getAllScores();
+    }
+
+    /**
+     * Looks up the rank of an existing player.
+     */
+    @Benchmark
+    public int getPlayersRank() throws IOException {
+        return service.getPlayersRank(BenchmarkFixtures.nicknameFor(ThreadLocalRandom.current().nextInt(size)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of {@link WordRepository} against word banks of 100 to 10M words.
+ * Every invocation looks up a key sampled from the word bank, so lookups always hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class WordRepositoryBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"heap"})
+    private String storage;
+
+    private Path directory;
+    private BenchmarkFixtures.WordBank bank;
+    private WordRepository repository;
+
+    /**
+     * Writes the word bank and opens the repository on it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createDirectory();
+        bank = BenchmarkFixtures.wordBank(directory, size, storage, "async");
+        repository = bank.repository();
+    }
+
+    /**
+     * Closes the repository and deletes its files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    /**
+     * Copies every word of a category, as the word list of a category is served.
+     */
+    @Benchmark
+    public List<WordEntry> findByCategory() {
+        String[] categories = bank.categories();
+        return repository.findByCategory(categories[ThreadLocalRandom.current().nextInt(categories.length)]);
+    }
+
+    /**
+     * Looks a word up by its text, as when checking for duplicates.
+     */
+    @Benchmark
+    public WordEntry findByWord() {
+        String[] words = bank.words();
+        return repository.findByWord(words[ThreadLocalRandom.current().nextInt(words.length)]);
+    }
+
+    /**
+     * Looks an entry up by its id, as before every update and delete.
+     */
+    @Benchmark
+    public WordEntry findById() {
+        String[] ids = bank.ids();
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.backendex3.benchmarks;
+
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRotationRepository;
+import com.example.backendex3.services.WordService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read paths of {@link WordService} used by every game, against word banks of 100 to 10M words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class WordServiceBenchmark {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"heap"})
+    private String storage;
+
+    private Path directory;
+    private BenchmarkFixtures.WordBank bank;
+    private ValidatorFactory validatorFactory;
+    private WordRotationRepository rotations;
+    private WordService service;
+
+    /**
+     * Writes the word bank and opens the repository and the service on it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkFixtures.createDirectory();
+        bank = BenchmarkFixtures.wordBank(directory, size, storage, "async");
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        rotations = new WordRotationRepository(86_400_000, 1_000_000, new SimpleMeterRegistry());
+        service = new WordService(bank.repository(), rotations, validatorFactory.getValidator(), new ObjectMapper());
+    }
+
+    /**
+     * Closes the repository and deletes its files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        validatorFactory.close();
+        rotations.close();
+        bank.repository().close();
+        BenchmarkFixtures.deleteDirectory(directory);
+    }
+
+    /**
+     * Picks the word of a new game.
+     */
+    @Benchmark
+    public WordEntry getRandomWordByCategory() {
+        String[] categories = bank.categories();
+        return service.getRandomWordByCategory(categories[ThreadLocalRandom.current().nextInt(categories.length)]);
+    }
+
+    /**
+     * Picks the word of a new game for one of {@value BenchmarkFixtures#SAMPLE_SIZE} players, from the player's
+     * shuffled order of the category.
+     */
+    @Benchmark
+    public WordEntry getRandomWordForPlayer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] categories = bank.categories();
+        return service.getRandomWordByCategory(categories[random.nextInt(categories.length)],
+                BenchmarkFixtures.nicknameFor(random.nextInt(BenchmarkFixtures.SAMPLE_SIZE)));
+    }
+
+    /**
+     * Lists the categories shown before a game.
+     */
+    @Benchmark
+    public List<String> getCategories() {
+        return service.getCategories();
+    }
+
+    /**
+     * Copies the whole word bank, as the unpaged word list is served.
+     */
+    @Benchmark
+    public List<WordEntry> getAllWords() {
+        return service.getAllWords();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backendex3.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP client of the game's API, shared by every simulated player and editor.
+ * Each call is timed from sending the request until the whole response is read, and recorded in the
+ * current {@link LoadReport} under its endpoint name.
+ */
+final class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+    private volatile LoadReport report;
+
+    /**
+     * Creates a client of the server at the given address.
+     *
+     * @param baseUri the server's address, e.g. {@code http://localhost:8080}
+     * @param report  the report to record the first requests in
+     */
+    ApiClient(URI baseUri, LoadReport report) {
+        this.baseUri = baseUri;
+        this.report = report;
+    }
+
+    /**
+     * Records the following requests in another report, so that warm-up requests are left out of the measurements.
+     *
+     * @param report the new report
+     */
+    void setReport(LoadReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Returns the report requests are currently recorded in.
+     *
+     * @return the current report
+     */
+    LoadReport getReport() {
+        return report;
+    }
+
+    /**
+     * Sends a request and records its latency or failure.
+     *
+     * @param endpoint the endpoint name the request is recorded under
+     * @param method   the HTTP method
+     * @param path     the path and query of the request
+     * @param body     the object sent as JSON, or {@code null} for no body
+     * @return the JSON response, or {@code null} if the request failed or the status was not 2xx
+     * @throws InterruptedException if interrupted while waiting for the response
+     */
+    JsonNode send(String endpoint, String method, String path, Object body) throws InterruptedException {
+        LoadReport current = report;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT);
+            if (body == null) {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+            else {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long micros = (System.nanoTime() - start) / 1000;
+            if (response.statusCode() / 100 != 2) {
+                current.recordError(endpoint);
+                return null;
+            }
+            current.recordSuccess(endpoint, micros);
+            return objectMapper.readTree(response.body());
+        }
+        catch (IOException e) {
+            current.recordError(endpoint);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backendex3.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in microseconds, recorded concurrently by every simulated client.
+ * Values below 128 µs are counted exactly; larger values fall into one of 64 buckets per power of two,
+ * so a reported percentile is at most about 1.6% above the actual value.
+ */
+final class LatencyHistogram {
+
+    private static final int EXACT_BUCKETS = 128;
+    private static final int SUB_BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(EXACT_BUCKETS + 57 * SUB_BUCKETS);
+
+    /**
+     * Records one latency.
+     *
+     * @param micros the latency in microseconds
+     */
+    void record(long micros) {
+        counts.incrementAndGet(indexOf(Math.max(micros, 0)));
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the count
+     */
+    long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recorded latencies fall.
+     *
+     * @param fraction the percentile as a fraction, e.g. {@code 0.99}
+     * @return the latency in microseconds, or 0 if nothing was recorded
+     */
+    long percentile(double fraction) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(counts.length() - 1);
+    }
+
+    /**
+     * Returns the highest recorded latency, rounded up to its bucket.
+     *
+     * @return the latency in microseconds, or 0 if nothing was recorded
+     */
+    long max() {
+        for (int i = counts.length() - 1; i >= 0; i--) {
+            if (counts.get(i) > 0) {
+                return highestValueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < EXACT_BUCKETS) {
+            return (int) micros;
+        }
+        // Shift so that the value keeps its 7 highest bits, which lie between 64 and 127
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - 6;
+        return EXACT_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < EXACT_BUCKETS) {
+            return index;
+        }
+        int shift = (index - EXACT_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = SUB_BUCKETS + (index - EXACT_BUCKETS) % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backendex3.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of every endpoint during one measurement window, plus the number of completed games.
+ * Only successful responses are counted in the latencies; failed requests and error statuses are counted as errors.
+ */
+final class LoadReport {
+
+    /**
+     * Statistics of one endpoint.
+     */
+    private static final class Endpoint {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder games = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    /**
+     * Records a successful request.
+     *
+     * @param endpoint the endpoint name, e.g. {@code GET /api/scores}
+     * @param micros   the latency in microseconds
+     */
+    void recordSuccess(String endpoint, long micros) {
+        endpoint(endpoint).latencies.record(micros);
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param endpoint the endpoint name
+     */
+    void recordError(String endpoint) {
+        endpoint(endpoint).errors.increment();
+    }
+
+    /**
+     * Records a game played from start to finish.
+     */
+    void recordGame() {
+        games.increment();
+    }
+
+    /**
+     * Ends the measurement window; the throughput is computed over the window's length.
+     */
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * Checks whether every endpoint met the latency objective with few enough errors.
+     *
+     * @param p99Micros    the highest acceptable 99th percentile, in microseconds
+     * @param maxErrorRate the highest acceptable fraction of failed requests
+     * @return {@code true} if every endpoint met the objective
+     */
+    boolean meets(long p99Micros, double maxErrorRate) {
+        for (Endpoint endpoint : endpoints.values()) {
+            long successes = endpoint.latencies.count();
+            long errors = endpoint.errors.sum();
+            if (successes + errors == 0) continue;
+            if (endpoint.latencies.percentile(0.99) > p99Micros || (double) errors / (successes + errors) > maxErrorRate) {
+                return false;
+            }
+        }
+        return !endpoints.isEmpty();
+    }
+
+    /**
+     * Prints the number of games and a table of throughput and latency percentiles per endpoint.
+     *
+     * @param out   the stream to print to
+     * @param title the heading of the table
+     */
+    void print(PrintStream out, String title) {
+        double seconds = (endNanos - startNanos) / 1e9;
+        out.println();
+        out.println(title);
+        out.printf("  %d games completed in %.1f s (%.1f games/s)%n", games.sum(), seconds, games.sum() / seconds);
+        out.printf("  %-32s %10s %8s %10s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            LatencyHistogram latencies = entry.getValue().latencies;
+            long requests = latencies.count();
+            out.printf("  %-32s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), requests,
+                    entry.getValue().errors.sum(), requests / seconds,
+                    latencies.percentile(0.50) / 1000.0, latencies.percentile(0.99) / 1000.0,
+                    latencies.percentile(0.999) / 1000.0, latencies.max() / 1000.0);
+        });
+    }
+
+    private Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint());
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.backendex3.loadtest;
+
+import com.example.backendex3.BackendEx3Application;
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.storage.BinaryFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Load generator replaying full game sessions against the application, entirely on the local machine.
+ * <p>
+ * For every configured number of players the test runs one step: that many simulated {@link Player}s play games
+ * while a few {@link WordEditor}s add, update and delete words. After a warm-up, the requests of each endpoint are
+ * measured for a fixed time and reported with their throughput and p50/p99/p999 latencies. The largest number of
+ * players whose requests all met the latency objective is the number of concurrent games the server holds.
+ * <p>
+ * Without {@code --url}, the application is started in this JVM on a seeded word bank and leaderboard in a temporary
+ * directory, once per request execution mode ({@code platform} threads or {@code virtual} threads), so both modes are
+ * measured on the same data. With {@code --url}, an already running server is measured instead.
+ * <p>
+ * Options, all given as {@code --name=value}:
+ * <ul>
+ *   <li>{@code url}: address of a running server; by default the application is started in this JVM</li>
+ *   <li>{@code modes}: request execution modes to measure in this JVM, default {@code platform,virtual}</li>
+ *   <li>{@code players}: comma-separated numbers of concurrent players, one step each, default {@code 50,200,1000}</li>
+ *   <li>{@code editors}: number of concurrent word editors, default 2</li>
+ *   <li>{@code think-ms}: average pause of a player between two requests, default 500</li>
+ *   <li>{@code editor-think-ms}: average pause of an editor between two requests, default 200</li>
+ *   <li>{@code warmup-s} and {@code duration-s}: length of the warm-up and of the measurement of each step, default 5 and 20</li>
+ *   <li>{@code slo-p99-ms} and {@code max-error-rate}: the latency objective, default 250 ms and 0.01</li>
+ *   <li>{@code words} and {@code scores}: size of the seeded word bank and leaderboard, default 10000 each</li>
+ * </ul>
+ * Any other option is passed to the application started in this JVM, e.g. {@code --persistence.durability=batched}.
+ */
+public final class LoadTest {
+
+    private static final String[] CATEGORIES = {
+            "animals", "colors", "fruits", "jobs", "countries", "vehicles", "sports", "instruments", "planets", "foods"};
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final Map<String, String> applicationProperties = new LinkedHashMap<>();
+
+    private LoadTest(String[] args) {
+        options.put("modes", "platform,virtual");
+        options.put("players", "50,200,1000");
+        options.put("editors", "2");
+        options.put("think-ms", "500");
+        options.put("editor-think-ms", "200");
+        options.put("warmup-s", "5");
+        options.put("duration-s", "20");
+        options.put("slo-p99-ms", "250");
+        options.put("max-error-rate", "0.01");
+        options.put("words", "10000");
+        options.put("scores", "10000");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options must be given as --name=value: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (options.containsKey(name) || name.equals("url")) {
+                options.put(name, value);
+            }
+            else {
+                applicationProperties.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * Runs the load test and prints its report.
+     *
+     * @param args options as {@code --name=value}, see the class documentation
+     * @throws Exception if the application cannot be started or the test is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        new LoadTest(args).run();
+    }
+
+    private void run() throws Exception {
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        if (options.containsKey("url")) {
+            capacities.put("remote server", runSteps("remote server", URI.create(options.get("url"))));
+        }
+        else {
+            for (String mode : options.get("modes").split(",")) {
+                capacities.put(mode.trim() + " threads", runInProcess(mode.trim()));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Concurrent games held with p99 <= %s ms and at most %s errors:%n",
+                options.get("slo-p99-ms"), options.get("max-error-rate"));
+        capacities.forEach((label, players) -> System.out.printf("  %-18s %s%n", label + ":",
+                players > 0 ? players : "none of the tested player counts"));
+    }
+
+    /**
+     * Starts the application in this JVM with the given request execution mode and runs every step against it.
+     *
+     * @param mode {@code platform} or {@code virtual}
+     * @return the largest number of players that met the objective, or 0 if none did
+     */
+    private int runInProcess(String mode) throws IOException, InterruptedException {
+        if (!mode.equals("platform") && !mode.equals("virtual")) {
+            throw new IllegalArgumentException("Unknown request execution mode: " + mode);
+        }
+
+        Path directory = Files.createTempDirectory("backend-ex3-loadtest");
+        try {
+            seed(directory);
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                    "--words.file=" + directory.resolve("words.bin"),
+                    "--words.mapped-file=" + directory.resolve("words.map"),
+                    "--words.journal.file=" + directory.resolve("words.journal"),
+                    "--scores.file=" + directory.resolve("scores.bin"),
+                    "--scores.log.file=" + directory.resolve("scores.log")));
+            applicationProperties.forEach((name, value) -> args.add("--" + name + "=" + value));
+
+            try (ConfigurableApplicationContext context = SpringApplication.run(BackendEx3Application.class, args.toArray(String[]::new))) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                return runSteps(mode + " threads", URI.create("http://localhost:" + port));
+            }
+        }
+        finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    /**
+     * Runs one step per configured number of players and prints the report of each.
+     *
+     * @param label   the name of the server setup in the reports
+     * @param baseUri the server's address
+     * @return the largest number of players that met the objective, or 0 if none did
+     */
+    private int runSteps(String label, URI baseUri) throws InterruptedException {
+        long sloMicros = TimeUnit.MILLISECONDS.toMicros(Long.parseLong(options.get("slo-p99-ms")));
+        double maxErrorRate = Double.parseDouble(options.get("max-error-rate"));
+
+        int capacity = 0;
+        for (String step : options.get("players").split(",")) {
+            int players = Integer.parseInt(step.trim());
+            LoadReport report = runStep(baseUri, players);
+            boolean met = report.meets(sloMicros, maxErrorRate);
+            report.print(System.out, String.format("%s, %d players: %s", label, players,
+                    met ? "objective met" : "objective missed"));
+            if (met) {
+                capacity = Math.max(capacity, players);
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Runs the players and editors of one step and returns the report of its measurement window.
+     */
+    private LoadReport runStep(URI baseUri, int players) throws InterruptedException {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup-s")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration-s")));
+        long thinkMillis = Long.parseLong(options.get("think-ms"));
+        long editorThinkMillis = Long.parseLong(options.get("editor-think-ms"));
+        int editors = Integer.parseInt(options.get("editors"));
+
+        ApiClient client = new ApiClient(baseUri, new LoadReport());
+        JsonNode categoryList = client.send(Player.CATEGORIES, "GET", "/wordEntry/getCategories", null);
+        if (categoryList == null || categoryList.isEmpty()) {
+            throw new IllegalStateException("The server at " + baseUri + " has no categories to play");
+        }
+        List<String> categories = new ArrayList<>();
+        categoryList.forEach(category -> categories.add(category.asText()));
+
+        long deadlineNanos = System.nanoTime() + warmupNanos + durationNanos;
+        LoadReport measured;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < players; i++) {
+                Player player = new Player(client, "player" + i, thinkMillis);
+                executor.submit(() -> {
+                    player.play(deadlineNanos);
+                    return null;
+                });
+            }
+            for (int i = 0; i < editors; i++) {
+                WordEditor editor = new WordEditor(client, categories, editorThinkMillis);
+                executor.submit(() -> {
+                    editor.edit(deadlineNanos);
+                    return null;
+                });
+            }
+
+            TimeUnit.NANOSECONDS.sleep(warmupNanos);
+            measured = new LoadReport();
+            client.setReport(measured);
+            TimeUnit.NANOSECONDS.sleep(durationNanos);
+            measured.finish();
+            client.setReport(new LoadReport());     // Games still finishing are left out of the measurement
+        }
+        return measured;
+    }
+
+    /**
+     * Writes the word bank and leaderboard the application in this JVM starts with.
+     */
+    private void seed(Path directory) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+
+        int wordCount = Integer.parseInt(options.get("words"));
+        List<WordEntry> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.add(new WordEntry(random.nextLong(), random.nextLong(), CATEGORIES[i % CATEGORIES.length],
+                    wordFor(i), "Seeded by the load test"));
+        }
+        BinaryFormat.writeWords(directory.resolve("words.bin"), words);
+
+        int scoreCount = Integer.parseInt(options.get("scores"));
+        List<Score> scores = new ArrayList<>(scoreCount);
+        for (int i = 0; i < scoreCount; i++) {
+            scores.add(new Score("seeded" + i, random.nextInt(2_000)));
+        }
+        BinaryFormat.writeScores(directory.resolve("scores.bin"), scores);
+    }
+
+    /**
+     * Returns a distinct, purely alphabetic word for an index: its base-26 digits spelled with the letters a-z.
+     */
+    private static String wordFor(int index) {
+        StringBuilder word = new StringBuilder("w");
+        int value = index;
+        do {
+            word.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return word.toString();
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
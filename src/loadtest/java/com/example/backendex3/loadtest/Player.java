@@ -0,0 +1,98 @@
+package com.example.backendex3.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A simulated player replaying the game flow of the frontend over and over:
+ * list the categories, start a game in one, guess letters until the word is found, and look at the leaderboard.
+ * Games are played on the server, which scores the winning guess.
+ * The player thinks between requests, so that each player holds one game open at a time, as a real one does.
+ */
+final class Player {
+
+    static final String CATEGORIES = "GET /wordEntry/getCategories";
+    static final String START_GAME = "POST /games";
+    static final String GUESS = "POST /games/{id}/guess";
+    static final String LEADERBOARD = "GET /api/scores";
+
+    private static final String LETTER_ORDER = "etaoinshrdlcumwfgypbvkjxqz";    // English letter frequency
+
+    private final ApiClient client;
+    private final String nickname;
+    private final long thinkMillis;
+
+    /**
+     * Creates a player.
+     *
+     * @param client      the client to send requests with
+     * @param nickname    the nickname scores are submitted under
+     * @param thinkMillis average pause between two requests, in milliseconds
+     */
+    Player(ApiClient client, String nickname, long thinkMillis) {
+        this.client = client;
+        this.nickname = nickname;
+        this.thinkMillis = thinkMillis;
+    }
+
+    /**
+     * Plays games until the deadline passes; a game under way when it passes is finished first.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} after which no new game starts
+     * @throws InterruptedException if interrupted while thinking or waiting for a response
+     */
+    void play(long deadlineNanos) throws InterruptedException {
+        // Spread the players' first requests over a think time, rather than starting them all at once
+        Thread.sleep(ThreadLocalRandom.current().nextLong(thinkMillis + 1));
+        while (System.nanoTime() < deadlineNanos) {
+            playGame();
+        }
+    }
+
+    private void playGame() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        JsonNode categories = client.send(CATEGORIES, "GET", "/wordEntry/getCategories", null);
+        if (categories == null || categories.isEmpty()) {
+            think(thinkMillis);
+            return;
+        }
+        String category = categories.get(random.nextInt(categories.size())).asText();
+        think(thinkMillis);
+
+        JsonNode game = client.send(START_GAME, "POST", "/games", Map.of("nickname", nickname, "category", category));
+        if (game == null) {
+            think(thinkMillis);
+            return;
+        }
+        think(thinkMillis);
+
+        String guessPath = "/games/" + game.path("id").asText() + "/guess";
+        for (int i = 0; i < LETTER_ORDER.length() && !game.path("finished").asBoolean(); i++) {
+            game = client.send(GUESS, "POST", guessPath, Map.of("guess", String.valueOf(LETTER_ORDER.charAt(i))));
+            think(thinkMillis);
+            if (game == null) {
+                return;
+            }
+        }
+
+        if (client.send(LEADERBOARD, "GET", "/api/scores", null) != null) {
+            client.getReport().recordGame();
+        }
+        think(thinkMillis);
+    }
+
+    /**
+     * Pauses for half to one and a half times the given time.
+     *
+     * @param millis the average pause, in milliseconds
+     * @throws InterruptedException if interrupted while pausing
+     */
+    static void think(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(millis / 2, millis * 3 / 2 + 1));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backendex3.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A simulated word manager editing the word bank while games are played: it adds a word,
+ * updates its hint and deletes it again, so the word bank keeps its size over the run.
+ */
+final class WordEditor {
+
+    static final String ADD = "POST /wordEntry/add";
+    static final String UPDATE = "PUT /wordEntry/update/{id}";
+    static final String DELETE = "DELETE /wordEntry/delete/{id}";
+
+    private static final int WORD_LENGTH = 12;
+
+    private final ApiClient client;
+    private final List<String> categories;
+    private final long thinkMillis;
+
+    /**
+     * Creates an editor.
+     *
+     * @param client      the client to send requests with
+     * @param categories  the categories new words are added to
+     * @param thinkMillis average pause between two requests, in milliseconds
+     */
+    WordEditor(ApiClient client, List<String> categories, long thinkMillis) {
+        this.client = client;
+        this.categories = categories;
+        this.thinkMillis = thinkMillis;
+    }
+
+    /**
+     * Edits words until the deadline passes.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} after which no new word is added
+     * @throws InterruptedException if interrupted while thinking or waiting for a response
+     */
+    void edit(long deadlineNanos) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadlineNanos) {
+            String category = categories.get(random.nextInt(categories.size()));
+            String word = randomWord(random);
+
+            JsonNode added = client.send(ADD, "POST", "/wordEntry/add",
+                    Map.of("category", category, "word", word, "hint", "Added by the load test"));
+            Player.think(thinkMillis);
+            if (added == null || !added.hasNonNull("id")) {
+                continue;
+            }
+            String id = added.get("id").asText();
+
+            client.send(UPDATE, "PUT", "/wordEntry/update/" + id,
+                    Map.of("category", category, "word", word, "hint", "Updated by the load test"));
+            Player.think(thinkMillis);
+
+            client.send(DELETE, "DELETE", "/wordEntry/delete/" + id, null);
+            Player.think(thinkMillis);
+        }
+    }
+
+    private static String randomWord(ThreadLocalRandom random) {
+        char[] letters = new char[WORD_LENGTH];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.dto.GameStateDTO;
+import com.example.backendex3.dto.GuessDTO;
+import com.example.backendex3.dto.NewGameDTO;
+import com.example.backendex3.services.GameService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * REST Controller for games played on the server.
+ * The word stays on the server: a game is started for a category, the player sends guesses, and the score
+ * is computed and saved by the server when the word is guessed. Games left unused for a while expire.
+ */
+@RestController
+@RequestMapping("/games")
+public class GameController {
+
+    private final GameService gameService;
+
+    /**
+     * Constructs a GameController with dependency injection for GameService.
+     *
+     * @param gameService Service layer responsible for game sessions
+     */
+    @Autowired
+    public GameController(GameService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Starts a game with a random word from a category.
+     *
+     * @param newGame the player's nickname and the category
+     * @return ResponseEntity with the game's id, category and masked word
+     */
+    @PostMapping(value = "")
+    public ResponseEntity<GameStateDTO> startGame(@Valid @RequestBody NewGameDTO newGame) {
+        return ResponseEntity.ok(gameService.startGame(newGame.getNickname(), newGame.getCategory()));
+    }
+
+    /**
+     * Guesses a letter, or the whole word, in a game.
+     * The guess that completes the word ends the game, and the response then holds the score and the rank.
+     *
+     * @param id    the game's id
+     * @param guess the guessed letter or word
+     * @return ResponseEntity with the game's state after the guess
+     * @throws IOException if the score cannot be saved
+     */
+    @PostMapping(value = "/{id}/guess")
+    public ResponseEntity<GameStateDTO> guess(@PathVariable("id") String id,
+                                              @Valid @RequestBody GuessDTO guess) throws IOException {
+        return ResponseEntity.ok(gameService.guess(id, guess.getGuess()));
+    }
+
+    /**
+     * Reveals the hint of a game's word, which lowers the game's score.
+     *
+     * @param id the game's id
+     * @return ResponseEntity containing:
+     *         - hint: the hint of the word
+     */
+    @PostMapping(value = "/{id}/hint")
+    public ResponseEntity<Map<String, String>> useHint(@PathVariable("id") String id) {
+        return ResponseEntity.ok(Map.of("hint", gameService.useHint(id)));
+    }
+}
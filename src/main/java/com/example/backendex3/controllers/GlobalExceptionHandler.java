@@ -2,6 +2,7 @@ package com.example.backendex3.controllers;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -51,6 +52,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(e.getMessage());
     }
 
+    /**
+     * Handles request bodies that cannot be read. A body rejected by a setter, such as a word entry whose id
+     * is not a UUID, is an invalid input like any other illegal argument; other read errors are handled as
+     * runtime exceptions.
+     *
+     * @param e the thrown HttpMessageNotReadableException
+     * @return HTTP 400 response with the setter's message, or the response of {@link #handleRuntimeException}
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        if (e.getMostSpecificCause() instanceof IllegalArgumentException cause) {
+            return handleIllegalArgumentException(cause);
+        }
+        return handleRuntimeException(e);
+    }
+
+    /**
+     * Handles unsupported operations, such as changing a word bank that is served read-only.
+     *
+     * @param e the thrown UnsupportedOperationException
+     * @return HTTP 405 response with the exception message
+     */
+    @ExceptionHandler(UnsupportedOperationException.class)
+    public ResponseEntity<String> handleUnsupportedOperationException(UnsupportedOperationException e) {
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(e.getMessage());
+    }
+
     /**
      * Handles exceptions of type {@link ResponseStatusException} and uses its status and reason in the response.
      *
@@ -1,10 +1,18 @@
 package com.example.backendex3.controllers;
 import com.example.backendex3.dto.ScoreDTO;
 import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreSubmission;
+import com.example.backendex3.services.LeaderboardBroadcaster;
 import com.example.backendex3.services.ScoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
@@ -20,21 +28,37 @@ import java.util.Map;
 @RequestMapping("/api/scores")
 public class ScoreController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
     private final ScoreService scoreService;
+    private final VersionedResponseCache responseCache;
+    private final LeaderboardBroadcaster broadcaster;
+    private final boolean clientSubmissionsEnabled;
 
     /**
-     * Constructs a ScoreController with dependency injection for ScoreService.
+     * Constructs a ScoreController with dependency injection for ScoreService, the response cache and the broadcaster.
      *
-     * @param scoreService Service layer responsible for business logic related to scores
+     * @param scoreService             Service layer responsible for business logic related to scores
+     * @param responseCache            Cache of the serialized leaderboard
+     * @param broadcaster              Broadcaster streaming leaderboard changes
+     * @param clientSubmissionsEnabled whether scores may still be submitted from statistics reported by the client
      */
     @Autowired
-    public ScoreController(ScoreService scoreService) {
+    public ScoreController(ScoreService scoreService, VersionedResponseCache responseCache,
+                           LeaderboardBroadcaster broadcaster,
+                           @Value("${scores.client-submissions.enabled:false}") boolean clientSubmissionsEnabled) {
         this.scoreService = scoreService;
+        this.responseCache = responseCache;
+        this.broadcaster = broadcaster;
+        this.clientSubmissionsEnabled = clientSubmissionsEnabled;
     }
 
     /**
      * Submits a new score for a player based on game statistics.
      * The score is calculated on the server side and added to the leaderboard.
+     * The statistics are reported by the client, so they cannot be trusted; games played through
+     * {@link GameController} are scored from what the server saw instead. This endpoint is therefore
+     * disabled unless {@code scores.client-submissions.enabled} is set.
      *
      * @param scoreDTO Data Transfer Object containing player's game stats (nickname, time taken, attempts, hint usage, etc.)
      * @return ResponseEntity containing:
@@ -43,10 +67,16 @@ public class ScoreController {
      *         - rank: the player's current rank
      *         - status: true if the score was added or improved,false otherwise
      * @throws IOException if reading/writing data fails
+     * @throws ResponseStatusException with 403 if client submissions are disabled
      */
     @PostMapping(value ="")
     public ResponseEntity<Map<String, Object>> submitScore(@Valid @RequestBody ScoreDTO scoreDTO) throws IOException {
 
+        if (!clientSubmissionsEnabled) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "Scores are saved by finishing a game through /games");
+        }
+
         int calculatedScore = scoreService.calculateScore(
                 scoreDTO.getTimeTakenMS(),
                 scoreDTO.getAttempts(),
@@ -54,28 +84,104 @@ public class ScoreController {
                 scoreDTO.getWordLength()
         );
 
-        boolean changed = scoreService.savePlayerScore(scoreDTO.getNickname(), calculatedScore);
+        ScoreSubmission submission = scoreService.savePlayerScore(scoreDTO.getNickname(), calculatedScore);
 
         // creating object that'll be passed to frontend
         Map<String, Object> response = new HashMap<>();
         response.put("score", calculatedScore);
         response.put("nickname", scoreDTO.getNickname());
-        response.put("rank", scoreService.getPlayersRank(scoreDTO.getNickname()));
-        response.put("status", changed); // true if score improved or added
+        response.put("rank", submission.getRank());
+        response.put("status", submission.isChanged()); // true if score improved or added
 
         return ResponseEntity.ok(response);
     }
 
     /**
-     * Retrieves the full leaderboard of top scores.
+     * Retrieves the leaderboard, sorted by score in descending order.
+     * Without parameters the full leaderboard is returned; {@code top} returns only the best N players,
+     * and {@code offset}/{@code limit} return a single page. Paged responses carry the leaderboard size
+     * in the {@code X-Total-Count} header.
+     * Responses carry the leaderboard's version as ETag, and a request whose If-None-Match holds the current
+     * ETag gets a 304 without the leaderboard being read. The full leaderboard is serialized once per version.
      *
-     * @return ResponseEntity with a list of {@link Score} objects representing the leaderboard
+     * @param top         optional number of best players to return
+     * @param offset      optional 0-based position of the first score to return
+     * @param limit       optional page size, defaults to {@value #DEFAULT_PAGE_SIZE} when an offset is given
+     * @param ifNoneMatch optional ETags the client already holds
+     * @return ResponseEntity with a list of {@link Score} objects representing the leaderboard, or 304 if the client's copy is current
      * @throws IOException if leaderboard data cannot be accessed
      */
     @GetMapping(value = "")
-    public ResponseEntity<List<Score>> getScores() throws IOException{
+    public ResponseEntity<?> getScores(@RequestParam(required = false) Integer top,
+                                       @RequestParam(required = false) Integer offset,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException{
+
+        long version = scoreService.getLeaderboardVersion();
+        String eTag = responseCache.eTag("scores", version);
+        if (responseCache.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        if (top == null && offset == null && limit == null) {
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseCache.get("scores", version, scoreService::getLeaderboard));
+        }
+
+        List<Score> page = top != null
+                ? scoreService.getLeaderboardPage(0, top)
+                : scoreService.getLeaderboardPage(offset != null ? offset : 0, limit != null ? limit : DEFAULT_PAGE_SIZE);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .header("X-Total-Count", String.valueOf(scoreService.getLeaderboardSize()))
+                .body(page);
+    }
+
+    /**
+     * Retrieves the players ranked around a given player, so a client can show a player's neighbourhood
+     * without fetching the full leaderboard.
+     *
+     * @param nickname the player at the center of the window
+     * @param k        number of players to include above and below the player
+     * @return ResponseEntity containing:
+     *         - nickname: the player nickname
+     *         - rank: the player's current rank
+     *         - firstRank: the rank of the first score in the list
+     *         - scores: the scores ranked from firstRank onward
+     * @throws IOException if leaderboard data cannot be accessed
+     */
+    @GetMapping(value = "/around/{nickname}")
+    public ResponseEntity<Map<String, Object>> getScoresAround(@PathVariable("nickname") String nickname,
+                                                               @RequestParam(defaultValue = "5") int k) throws IOException {
+
+        int rank = scoreService.getPlayersRank(nickname);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("nickname", nickname);
+        response.put("rank", rank);
+        response.put("firstRank", Math.max(1, rank - k));
+        response.put("scores", scoreService.getLeaderboardAround(rank, k));
 
-        List<Score> topScores = scoreService.getLeaderboard();
-        return ResponseEntity.ok(topScores);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streams leaderboard changes as Server-Sent Events, so clients follow the leaderboard without polling it.
+     * The first event, {@code version}, holds the current leaderboard version. Every following {@code scores}
+     * event holds {@code previousVersion}, the leaderboard version before its changes, and {@code deltas}
+     * (nickname, score, oldRank, newRank, version), with changes made within one tick coalesced per player;
+     * its id is the leaderboard version after its last delta. A client applies an event whose previousVersion
+     * is the version it holds and refetches the leaderboard when it sees any other one.
+     * Clients that fall too far behind are disconnected and should reconnect and refetch the leaderboard.
+     *
+     * @return the event stream
+     * @throws org.springframework.web.server.ResponseStatusException with status 503 if too many clients are subscribed
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard() {
+        return broadcaster.subscribe(scoreService.getLeaderboardVersion());
     }
-}
\ No newline at end of file
+}
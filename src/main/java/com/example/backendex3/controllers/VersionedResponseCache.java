@@ -0,0 +1,102 @@
+package com.example.backendex3.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialized JSON bodies of the polled read endpoints, cached per version of the data they show.
+ * While the version stays the same, every response reuses the same bytes, so a poll costs neither a copy
+ * of the data nor its serialization. The cache also builds the strong ETags of these responses.
+ */
+@Component
+public class VersionedResponseCache {
+
+    /**
+     * Supplies the data of a response on a cache miss.
+     */
+    @FunctionalInterface
+    public interface BodySupplier {
+        Object get() throws IOException;
+    }
+
+    /**
+     * A serialized body and the version of the data it was built from.
+     */
+    private record Entry(long version, byte[] body) {}
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for dependency injection of the ObjectMapper.
+     *
+     * @param objectMapper the mapper serializing the bodies, configured like the rest of the API
+     */
+    public VersionedResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the strong ETag of a resource at a version.
+     * The ETag includes the time the application started, so ETags handed out before a restart never match
+     * data that was reset or reloaded since.
+     *
+     * @param resource the name of the data shown, e.g. {@code words}
+     * @param version  the version of that data
+     * @return the quoted ETag
+     */
+    public String eTag(String resource, long version) {
+        return "\"" + resource + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Checks whether a client already holds the current version of a resource.
+     * If-None-Match compares ETags weakly, so a {@code W/} prefix added by a proxy is ignored.
+     *
+     * @param ifNoneMatch the request's If-None-Match header, may be {@code null}
+     * @param eTag        the current ETag of the resource
+     * @return {@code true} if the header lists the ETag or is {@code *}
+     */
+    public boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the serialized body of a response, building it only if the cached one is from another version.
+     * Read the version before the data, so the cached body is never older than the version it is cached under.
+     *
+     * @param key     the response, e.g. {@code categories}
+     * @param version the version of the data the body shows
+     * @param body    supplies the data to serialize on a miss
+     * @return the JSON bytes of the body
+     * @throws IOException if the data cannot be read or serialized
+     */
+    public byte[] get(String key, long version, BodySupplier body) throws IOException {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == version) {
+            return entry.body();
+        }
+
+        byte[] serialized = objectMapper.writeValueAsBytes(body.get());
+        entries.merge(key, new Entry(version, serialized),
+                (current, built) -> current.version() > built.version() ? current : built);
+        return serialized;
+    }
+}
@@ -2,16 +2,19 @@ package com.example.backendex3.controllers;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.backendex3.repositories.WordEntry;
 import com.example.backendex3.services.WordService;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,38 +25,77 @@ import java.util.Map;
 @RequestMapping("/wordEntry")
 public class WordEntryController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+
     private final WordService wordService;
+    private final VersionedResponseCache responseCache;
 
     /**
-     * Constructor for dependency injection of the WordService.
+     * Constructor for dependency injection of the WordService and the response cache.
      *
-     * @param wordService Service used for managing word entries
+     * @param wordService   Service used for managing word entries
+     * @param responseCache Cache of the serialized word list and categories
      */
     @Autowired
-    public WordEntryController(WordService wordService) {
+    public WordEntryController(WordService wordService, VersionedResponseCache responseCache) {
         this.wordService = wordService;
+        this.responseCache = responseCache;
     }
 
     /**
-     * Returns all word entries stored in the system.
+     * Returns the word entries stored in the system, sorted by word.
+     * Without parameters all entries are returned; {@code offset}/{@code limit} return a single page
+     * and {@code prefix} keeps only the words starting with it.
+     * Responses carry the word bank's version as ETag, and a request whose If-None-Match holds the current
+     * ETag gets a 304 without the words being read. The full list is serialized once per version.
      *
-     * @return List of all {@link WordEntry} objects
+     * @param prefix      optional prefix the words must start with
+     * @param offset      optional number of matching words to skip
+     * @param limit       optional page size, defaults to {@value #DEFAULT_PAGE_SIZE} when paging or filtering
+     * @param ifNoneMatch optional ETags the client already holds
+     * @return List of {@link WordEntry} objects, or 304 if the client's copy is current
+     * @throws IOException if the word list cannot be serialized
      */
     @GetMapping(value="")
-    public List<WordEntry> getRoot() {
-        return wordService.getAllWords();
+    public ResponseEntity<?> getRoot(@RequestParam(required = false) String prefix,
+                                     @RequestParam(required = false) Integer offset,
+                                     @RequestParam(required = false) Integer limit,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        long version = wordService.getVersion();
+        String eTag = responseCache.eTag("words", version);
+        if (responseCache.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        if (prefix == null && offset == null && limit == null) {
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseCache.get("words", version, wordService::getAllWords));
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(wordService.getWordsPage(prefix,
+                        offset != null ? offset : 0,
+                        limit != null ? limit : DEFAULT_PAGE_SIZE));
     }
 
     /**
      * Returns a random word entry by category.
+     * With a nickname, the player gets the category's words in a shuffled order, without repeats until every
+     * word was given once, so clients need not retry to avoid words the player already had.
      *
      * @param category Category to filter words
+     * @param nickname Optional player nickname
      * @return A randomly selected {@link WordEntry} from the specified category
      * @throws ResponseStatusException if no words are found in the category
      */
     @GetMapping("/getRandomWord")
-    public WordEntry getWordEntry(@RequestParam String category) {
-        WordEntry randomWord = wordService.getRandomWordByCategory(category);
+    public WordEntry getWordEntry(@RequestParam String category,
+                                  @RequestParam(required = false) String nickname) {
+        WordEntry randomWord = wordService.getRandomWordByCategory(category, nickname);
         if (randomWord == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     "No words found in category: " + category);
@@ -118,15 +160,65 @@ public class WordEntryController {
 
     /**
      * Retrieves all distinct categories from word entries.
+     * Responses carry the word bank's version as ETag, and a request whose If-None-Match holds the current
+     * ETag gets a 304. The list is serialized once per version.
      *
-     * @return List of category names
+     * @param ifNoneMatch optional ETags the client already holds
+     * @return JSON list of category names, or 304 if the client's copy is current
+     * @throws IOException if the categories cannot be serialized
      */
     @GetMapping("/getCategories")
-    public ResponseEntity<List<String>> getCategories() {
-        List<String> categories = wordService.getCategories();
-        if (categories.isEmpty()) {
-            return ResponseEntity.ok(new ArrayList<>());
+    public ResponseEntity<byte[]> getCategories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        long version = wordService.getVersion();
+        String eTag = responseCache.eTag("words", version);
+        if (responseCache.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
         }
-        return ResponseEntity.ok(categories);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(responseCache.get("categories", version, wordService::getCategories));
+    }
+
+    /**
+     * Retrieves the number of words in each category.
+     *
+     * @return Map from category name to word count, sorted by category name
+     */
+    @GetMapping("/getCategoryCounts")
+    public ResponseEntity<Map<String, Integer>> getCategoryCounts() {
+        return ResponseEntity.ok(wordService.getCategoryCounts());
+    }
+
+    /**
+     * Imports word entries in bulk from a streamed NDJSON or CSV body.
+     * The body is parsed line by line while it is received, so it can hold millions of entries.
+     *
+     * @param contentType {@code text/csv} for CSV; anything else is read as NDJSON
+     * @param body        the request body
+     * @return a summary with the number of added and rejected entries and the first errors
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> importWords(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                           InputStream body) throws IOException {
+        boolean csv = contentType != null && contentType.startsWith(CSV);
+        return ResponseEntity.ok(wordService.importWords(body, csv));
+    }
+
+    /**
+     * Exports every word entry, sorted by word, streaming them as they are read.
+     *
+     * @param format {@code csv} for CSV, otherwise NDJSON
+     * @return the streamed entries
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportWords(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> wordService.exportWords(out, csv);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? CSV + ";charset=UTF-8" : NDJSON))
+                .body(body);
     }
 }
@@ -0,0 +1,152 @@
+package com.example.backendex3.dto;
+
+import com.example.backendex3.repositories.GameSession;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Data Transfer Object (DTO) describing a game as the player may see it: the word is masked until it is guessed.
+ * Once the game is won, it also holds the score computed on the server and the player's rank.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameStateDTO {
+
+    private final String id;
+    private final String category;
+    private final String maskedWord;
+    private final String guessedLetters;
+    private final int attempts;
+    private final boolean usedHint;
+    private final boolean finished;
+    private final Integer timeTakenMS;
+    private Integer score;
+    private Integer rank;
+    private Boolean status;
+
+    /**
+     * Captures the state of a game.
+     *
+     * @param session the game's session
+     */
+    public GameStateDTO(GameSession session) {
+        this.id = session.getId().toString();
+        this.category = session.getCategory();
+        this.maskedWord = session.getMaskedWord();
+        this.guessedLetters = session.getGuessedLetters();
+        this.attempts = session.getFailedAttempts();
+        this.usedHint = session.isUsedHint();
+        this.finished = session.isFinished();
+        this.timeTakenMS = finished ? session.getTimeTakenMS() : null;
+    }
+
+    /**
+     * Records the result of a won game.
+     *
+     * @param score  the score computed for the game
+     * @param rank   the player's rank after the game
+     * @param status true if the score was added to the leaderboard or improved the player's score
+     */
+    public void setResult(int score, int rank, boolean status) {
+        this.score = score;
+        this.rank = rank;
+        this.status = status;
+    }
+
+    /**
+     * Gets the game's id.
+     *
+     * @return Session id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the category of the word.
+     *
+     * @return Category name
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the word with the letters not guessed yet replaced by {@code _}.
+     *
+     * @return Masked word
+     */
+    public String getMaskedWord() {
+        return maskedWord;
+    }
+
+    /**
+     * Gets the letters guessed so far.
+     *
+     * @return Guessed letters, in alphabetical order
+     */
+    public String getGuessedLetters() {
+        return guessedLetters;
+    }
+
+    /**
+     * Gets the number of failed attempts.
+     *
+     * @return Failed attempts
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Checks if the player used the hint.
+     *
+     * @return true if hint was used, false otherwise
+     */
+    public boolean isUsedHint() {
+        return usedHint;
+    }
+
+    /**
+     * Checks if the word was guessed.
+     *
+     * @return true if the game is won, false while in progress
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the time taken to guess the word, measured on the server.
+     *
+     * @return Time in milliseconds, or null while in progress
+     */
+    public Integer getTimeTakenMS() {
+        return timeTakenMS;
+    }
+
+    /**
+     * Gets the score of a won game.
+     *
+     * @return Score, or null while in progress
+     */
+    public Integer getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the player's rank after a won game.
+     *
+     * @return Rank, or null while in progress
+     */
+    public Integer getRank() {
+        return rank;
+    }
+
+    /**
+     * Gets whether a won game added or improved the player's score.
+     *
+     * @return true if the score was added or improved, or null while in progress
+     */
+    public Boolean getStatus() {
+        return status;
+    }
+}
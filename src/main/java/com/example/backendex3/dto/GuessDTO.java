@@ -0,0 +1,49 @@
+package com.example.backendex3.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Data Transfer Object (DTO) for a guess in a game: a single letter, or the whole word.
+ * Uses Bean Validation annotations for input validation.
+ */
+public class GuessDTO {
+
+    @NotBlank(message = "Guess cannot be empty")
+    @Pattern(regexp = "[a-zA-Z]+", message = "Guess must contain only alphabetic characters (a–z or A–Z)")
+    @Size(max = 100, message = "Guess cannot be longer than 100 letters")
+    private String guess;
+
+    /**
+     * Default constructor.
+     */
+    public GuessDTO() {}
+
+    /**
+     * Constructs a GuessDTO.
+     *
+     * @param guess The guessed letter or word.
+     */
+    public GuessDTO(String guess) {
+        this.guess = guess;
+    }
+
+    /**
+     * Gets the guessed letter or word.
+     *
+     * @return The guess
+     */
+    public String getGuess() {
+        return guess;
+    }
+
+    /**
+     * Sets the guessed letter or word.
+     *
+     * @param guess The guess
+     */
+    public void setGuess(String guess) {
+        this.guess = guess;
+    }
+}
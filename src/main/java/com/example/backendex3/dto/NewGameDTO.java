@@ -0,0 +1,70 @@
+package com.example.backendex3.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Data Transfer Object (DTO) for starting a game: the player and the category to draw a word from.
+ * Uses Bean Validation annotations for input validation.
+ */
+public class NewGameDTO {
+
+    @NotBlank(message = "Nickname cannot be empty")
+    @Size(max = 50, message = "Nickname cannot be longer than 50 characters")
+    private String nickname;
+
+    @NotBlank(message = "Category cannot be empty")
+    private String category;
+
+    /**
+     * Default constructor.
+     */
+    public NewGameDTO() {}
+
+    /**
+     * Constructs a NewGameDTO.
+     *
+     * @param nickname The player's nickname, under which the score is saved.
+     * @param category The category to draw the word from.
+     */
+    public NewGameDTO(String nickname, String category) {
+        this.nickname = nickname;
+        this.category = category;
+    }
+
+    /**
+     * Gets the player's nickname.
+     *
+     * @return Player's nickname
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Sets the player's nickname.
+     *
+     * @param nickname Player's nickname
+     */
+    public void setNickname(String nickname) {
+        this.nickname = nickname;
+    }
+
+    /**
+     * Gets the category to draw the word from.
+     *
+     * @return Category name
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets the category to draw the word from.
+     *
+     * @param category Category name
+     */
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
 /**
  * Data Transfer Object (DTO) for receiving game statistics and score input from clients.
@@ -14,6 +15,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 public class ScoreDTO {
 
     @NotBlank(message = "Nickname cannot be empty")
+    @Size(max = 50, message = "Nickname cannot be longer than 50 characters")
     private String nickname;
 
     @Min(value = 0, message = "Time taken cannot be negative")
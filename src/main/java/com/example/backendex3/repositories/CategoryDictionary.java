@@ -0,0 +1,98 @@
+package com.example.backendex3.repositories;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared dictionary of category names.
+ * Every distinct category is assigned a small integer code the first time it is seen, and a stored
+ * {@link WordEntry} keeps only the code, resolving its name here when asked. Codes are never reused or removed, so a code
+ * can be compared with {@code ==} and used as an array index for as long as the application runs.
+ * Lookups never lock; only assigning a new code does. Only the {@link WordRepository} assigns codes,
+ * for the validated categories of the entries it stores, so the dictionary cannot be grown by arbitrary input.
+ */
+public final class CategoryDictionary {
+
+    /** Code of a missing ({@code null}) category. */
+    public static final int NONE = -1;
+
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[8];    // Doubled when full, so assigning a code is amortized O(1)
+    private static volatile int size;
+    private static final ReentrantLock lock = new ReentrantLock();    // Serializes assigning new codes
+
+    private CategoryDictionary() {}
+
+    /**
+     * Returns the code of a category, assigning a new one if the category has not been seen before.
+     *
+     * @param category the category name
+     * @return the category's code, or {@link #NONE} if the category is {@code null}
+     */
+    public static int intern(String category) {
+        if (category == null) {
+            return NONE;
+        }
+        Integer code = codes.get(category);
+        return code != null ? code : assign(category);
+    }
+
+    /**
+     * Returns the code of a category without assigning one.
+     *
+     * @param category the category name
+     * @return the category's code, or {@link #NONE} if the category is {@code null} or has never been seen
+     */
+    public static int lookup(String category) {
+        if (category == null) {
+            return NONE;
+        }
+        Integer code = codes.get(category);
+        return code != null ? code : NONE;
+    }
+
+    /**
+     * Returns the name of a category code.
+     *
+     * @param code a code returned by {@link #intern(String)}
+     * @return the category name, or {@code null} for {@link #NONE}
+     */
+    public static String nameOf(int code) {
+        return code == NONE ? null : names[code];
+    }
+
+    /**
+     * Returns the number of codes assigned so far; every code is below this value.
+     *
+     * @return the dictionary size
+     */
+    public static int size() {
+        return size;
+    }
+
+    private static int assign(String category) {
+        lock.lock();
+        try {
+            Integer existing = codes.get(category);
+            if (existing != null) {
+                return existing;
+            }
+
+            int code = size;
+            String[] current = names;
+            if (code == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[code] = category;
+            names = current;    // Publish the name before the size and the code, so nameOf never misses a visible code
+            size = code + 1;
+            codes.put(category, code);
+            return code;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+}
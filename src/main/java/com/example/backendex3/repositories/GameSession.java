@@ -0,0 +1,350 @@
+package com.example.backendex3.repositories;
+
+import java.util.UUID;
+
+/**
+ * A game in progress: the word a player is guessing and everything needed to score the game on the server.
+ * <p>
+ * The rules are those of the frontend. Guessing a letter that is not in the word is a failed attempt, and
+ * guessing a letter twice is ignored. Guessing the whole word wins the game. A wrong word guess reveals nothing,
+ * and is a failed attempt for every letter of the word still hidden.
+ * <p>
+ * Guesses are checked with bit masks computed once when the game starts: the 26-bit set of the word's letters,
+ * and for words of up to 64 characters the positions of each of its letters as a 64-bit mask. A letter guess
+ * is then a few bitwise operations on the session's fields, without scanning the word or allocating; the game
+ * is won once every letter of the word is guessed. Longer words fall back to scanning the word where positions
+ * are needed. Only the word's distinct letters get a position mask, which keeps the session small.
+ * <p>
+ * Sessions are kept by the hundreds of thousands, so a session holds only references to the shared word and
+ * hint strings besides its masks. A session is not thread-safe: the {@link GameSessionRepository} changes a
+ * session only while holding its entry in the session map.
+ */
+public class GameSession {
+
+    private final UUID id;
+    private final String nickname;
+    private final String word;          // Lowercase
+    private final String hint;
+    private final String category;
+    private final int wordLetters;      // Bit i is set if the letter 'a' + i is in the word
+    private final long[] positions;     // Positions of each letter of the word, by rank in wordLetters; null past 64 characters
+    private final long startNanos;
+    private long lastAccessNanos;
+    private long finishNanos;
+    private boolean finished;
+    private long hidden;                // Positions not revealed yet, for words of up to 64 characters
+    private int guessedLetters;         // Bit i is set once the letter 'a' + i was guessed
+    private int failedAttempts;
+    private boolean usedHint;
+
+    /**
+     * Starts a game and computes the masks of its word. Games are normally started through
+     * {@link GameSessionRepository#create}.
+     *
+     * @param id         the session id
+     * @param nickname   the player's nickname, under which the score is saved
+     * @param entry      the word to guess
+     * @param startNanos the {@link System#nanoTime()} at which the game starts
+     */
+    public GameSession(UUID id, String nickname, WordEntry entry, long startNanos) {
+        this.id = id;
+        this.nickname = nickname;
+        this.word = entry.getWord().toLowerCase();
+        this.hint = entry.getHint();
+        this.category = entry.getCategory();
+        this.startNanos = startNanos;
+        this.lastAccessNanos = startNanos;
+        this.wordLetters = lettersOf(word);
+
+        if (word.length() > Long.SIZE) {
+            this.positions = null;
+            return;
+        }
+        this.positions = new long[Integer.bitCount(wordLetters)];
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                positions[rankOf(1 << (c - 'a'))] |= 1L << i;
+                hidden |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Applies a guess: a single letter, or the whole word.
+     *
+     * @param guess the guessed letter or word, lowercase
+     * @param now   the current {@link System#nanoTime()}
+     * @return {@code true} if this guess won the game
+     * @throws IllegalArgumentException if the game is already won or a letter is not a–z
+     */
+    public boolean guess(String guess, long now) {
+        return guess.length() == 1 ? guessLetter(guess.charAt(0), now) : guessWord(guess, now);
+    }
+
+    /**
+     * Applies a letter guess.
+     *
+     * @param letter the guessed letter, a–z
+     * @param now    the current {@link System#nanoTime()}
+     * @return {@code true} if this guess won the game
+     * @throws IllegalArgumentException if the game is already won or the letter is not a–z
+     */
+    public boolean guessLetter(char letter, long now) {
+        checkInProgress();
+        if (letter < 'a' || letter > 'z') {
+            throw new IllegalArgumentException("Guess must be a letter a–z");
+        }
+
+        int bit = 1 << (letter - 'a');
+        if ((guessedLetters & bit) != 0) {
+            return false;
+        }
+        guessedLetters |= bit;
+        if ((wordLetters & bit) == 0) {
+            failedAttempts++;
+            return false;
+        }
+        reveal(bit);
+        return finishIfSolved(now);
+    }
+
+    /**
+     * Applies a whole-word guess. Only the exact word wins; any other word reveals nothing
+     * and counts as one failed attempt per letter still hidden.
+     *
+     * @param guess the guessed word, lowercase
+     * @param now   the current {@link System#nanoTime()}
+     * @return {@code true} if this guess won the game
+     * @throws IllegalArgumentException if the game is already won or the guess is not as long as the word
+     */
+    public boolean guessWord(String guess, long now) {
+        checkInProgress();
+        if (guess.length() != word.length()) {
+            throw new IllegalArgumentException("Guess must be a single letter or a word of " + word.length() + " letters");
+        }
+
+        if (!guess.equals(word)) {
+            failedAttempts += hiddenLetters();
+            return false;
+        }
+        int added = wordLetters & ~guessedLetters;
+        guessedLetters |= added;
+        reveal(added);
+        return finishIfSolved(now);
+    }
+
+    /**
+     * Returns the hint of the word, which counts against the score.
+     *
+     * @return the hint
+     */
+    public String useHint() {
+        usedHint = true;
+        return hint;
+    }
+
+    /**
+     * Returns the word with every letter not guessed yet replaced by {@code _}.
+     *
+     * @return the masked word
+     */
+    public String getMaskedWord() {
+        char[] masked = word.toCharArray();
+        for (int i = 0; i < masked.length; i++) {
+            if (positions != null ? (hidden & (1L << i)) != 0 : !isGuessed(masked[i])) {
+                masked[i] = '_';
+            }
+        }
+        return new String(masked);
+    }
+
+    /**
+     * Returns the letters guessed so far, in alphabetical order.
+     *
+     * @return the guessed letters
+     */
+    public String getGuessedLetters() {
+        StringBuilder letters = new StringBuilder(Integer.bitCount(guessedLetters));
+        for (int i = 0; i < 26; i++) {
+            if ((guessedLetters & (1 << i)) != 0) {
+                letters.append((char) ('a' + i));
+            }
+        }
+        return letters.toString();
+    }
+
+    /**
+     * Returns the session id.
+     *
+     * @return the id
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Returns the player's nickname.
+     *
+     * @return the nickname
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Returns the category of the word.
+     *
+     * @return the category name
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Returns the number of letters of the word.
+     *
+     * @return the word length
+     */
+    public int getWordLength() {
+        return word.length();
+    }
+
+    /**
+     * Returns the number of failed attempts so far.
+     *
+     * @return the failed attempts
+     */
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    /**
+     * Checks whether the player asked for the hint.
+     *
+     * @return {@code true} if the hint was used
+     */
+    public boolean isUsedHint() {
+        return usedHint;
+    }
+
+    /**
+     * Checks whether the word was guessed.
+     *
+     * @return {@code true} if the game is won
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the time the player took to guess the word, measured on the server.
+     *
+     * @return the time from the start of the game to the winning guess in milliseconds, or 0 while in progress
+     */
+    public int getTimeTakenMS() {
+        return isFinished() ? (int) Math.min((finishNanos - startNanos) / 1_000_000, Integer.MAX_VALUE) : 0;
+    }
+
+    /**
+     * Records that the session was used.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void touch(long now) {
+        lastAccessNanos = now;
+    }
+
+    /**
+     * Checks whether the session was left unused for too long.
+     *
+     * @param now      the current {@link System#nanoTime()}
+     * @param ttlNanos the idle time after which a session expires, in nanoseconds
+     * @return {@code true} if the session expired
+     */
+    boolean isExpired(long now, long ttlNanos) {
+        return now - lastAccessNanos > ttlNanos;
+    }
+
+    /**
+     * Throws if the game is already won.
+     */
+    private void checkInProgress() {
+        if (isFinished()) {
+            throw new IllegalArgumentException("Game " + id + " is already finished");
+        }
+    }
+
+    /**
+     * Reveals the positions of newly guessed letters of the word.
+     *
+     * @param letters bits of letters that are in the word and were not guessed before
+     */
+    private void reveal(int letters) {
+        if (positions == null) {
+            return;
+        }
+        while (letters != 0) {
+            int bit = letters & -letters;
+            hidden &= ~positions[rankOf(bit)];
+            letters ^= bit;
+        }
+    }
+
+    /**
+     * Ends the game if every letter of the word was guessed.
+     */
+    private boolean finishIfSolved(long now) {
+        if ((wordLetters & ~guessedLetters) != 0) {
+            return false;
+        }
+        finishNanos = now;
+        finished = true;
+        return true;
+    }
+
+    /**
+     * Returns the index of a letter's position mask: the number of the word's letters before it in the alphabet.
+     */
+    private int rankOf(int bit) {
+        return Integer.bitCount(wordLetters & (bit - 1));
+    }
+
+    /**
+     * Counts the characters of the word not guessed yet. Characters other than a–z are never hidden.
+     */
+    private int hiddenLetters() {
+        if (positions != null) {
+            return Long.bitCount(hidden);
+        }
+        int count = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (!isGuessed(word.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a character of the word is shown: a guessed letter, or any character other than a–z.
+     * Used for words too long for position masks.
+     */
+    private boolean isGuessed(char c) {
+        return c < 'a' || c > 'z' || (guessedLetters & (1 << (c - 'a'))) != 0;
+    }
+
+    /**
+     * Returns the bits of the letters a–z in a string.
+     */
+    private static int lettersOf(String s) {
+        int letters = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                letters |= 1 << (c - 'a');
+            }
+        }
+        return letters;
+    }
+}
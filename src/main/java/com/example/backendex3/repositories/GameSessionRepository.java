@@ -0,0 +1,155 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-memory store of the games in progress.
+ * <p>
+ * Sessions are kept in a concurrent map keyed by their random id. A session is changed only inside
+ * {@link ConcurrentHashMap#computeIfPresent}, so concurrent guesses on one game are applied one at a time,
+ * while guesses on different games do not contend, and no session needs a lock of its own.
+ * <p>
+ * A session expires once it is left unused for the configured time. Expired sessions are never handed out,
+ * and a background sweep removes them. The number of sessions is capped, which bounds the memory they take:
+ * about 250 bytes per session, plus the nickname, as the word and hint strings are shared with the word bank.
+ * Sessions are not persisted, so games in progress are lost on restart.
+ */
+@Repository
+public class GameSessionRepository {
+
+    private final Map<UUID, GameSession> sessions = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSessions;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("game-session-sweeper").daemon().factory());
+    private final Counter expired;
+
+    /**
+     * Creates the store and schedules the sweep of expired sessions.
+     *
+     * @param ttl           idle time after which a session expires, in milliseconds
+     * @param maxSessions   number of sessions beyond which no new game starts
+     * @param meterRegistry registry publishing the session count and the number of expired sessions
+     */
+    public GameSessionRepository(@Value("${games.session.ttl-ms:1800000}") long ttl,
+                                 @Value("${games.max-sessions:500000}") int maxSessions,
+                                 MeterRegistry meterRegistry) {
+        if (ttl <= 0 || maxSessions <= 0) {
+            throw new IllegalArgumentException("Game session TTL and maximum count must be positive");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.maxSessions = maxSessions;
+        this.expired = Counter.builder("games.sessions.expired")
+                .description("Game sessions removed after being left unused")
+                .register(meterRegistry);
+        Gauge.builder("games.sessions.active", sessions, Map::size)
+                .description("Games in progress")
+                .register(meterRegistry);
+
+        // Sweeping a few times per TTL keeps expired sessions from lingering much longer than the TTL
+        long sweepInterval = Math.max(1, Math.min(ttl / 4, TimeUnit.MINUTES.toMillis(1)));
+        sweeper.scheduleWithFixedDelay(this::removeExpired, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a game.
+     *
+     * @param nickname the player's nickname
+     * @param entry    the word to guess
+     * @return the new session, or {@code null} if the maximum number of sessions is reached
+     */
+    public GameSession create(String nickname, WordEntry entry) {
+        if (sessions.size() >= maxSessions) {
+            return null;
+        }
+        while (true) {
+            UUID id = UUID.randomUUID();
+            GameSession session = new GameSession(id, nickname, entry, System.nanoTime());
+            if (sessions.putIfAbsent(id, session) == null) {
+                return session;
+            }
+        }
+    }
+
+    /**
+     * Runs an action on a session, with no other action running on it at the same time.
+     * The action must be quick and must not block, as it runs while the session's entry in the map is locked.
+     *
+     * @param id     the session id
+     * @param action the action, which may change the session and returns what the caller needs of it
+     * @param <T>    the type of the action's result
+     * @return the action's result, or {@code null} if there is no such session or it expired
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T update(UUID id, Function<GameSession, T> action) {
+        Object[] result = new Object[1];
+        long now = System.nanoTime();
+        sessions.computeIfPresent(id, (key, session) -> {
+            if (session.isExpired(now, ttlNanos)) {
+                expired.increment();
+                return null;
+            }
+            session.touch(now);
+            result[0] = action.apply(session);
+            return session;
+        });
+        return (T) result[0];
+    }
+
+    /**
+     * Removes a session, e.g. once its game is won.
+     *
+     * @param id the session id
+     * @return {@code true} if the session was removed by this call
+     */
+    public boolean remove(UUID id) {
+        return sessions.remove(id) != null;
+    }
+
+    /**
+     * Returns the number of sessions, including expired ones not swept yet.
+     *
+     * @return the session count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes every expired session. Each removal re-checks the session under its entry's lock,
+     * so a session used while the sweep runs is kept.
+     */
+    private void removeExpired() {
+        long now = System.nanoTime();
+        for (UUID id : sessions.keySet()) {
+            sessions.computeIfPresent(id, (key, session) -> {
+                if (session.isExpired(now, ttlNanos)) {
+                    expired.increment();
+                    return null;
+                }
+                return session;
+            });
+        }
+    }
+
+    /**
+     * Stops the sweep when the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
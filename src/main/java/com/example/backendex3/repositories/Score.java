@@ -9,6 +9,9 @@ import java.io.Serializable;
  */
 public class Score implements Serializable {
 
+    // Matches the id computed for the original class, so existing scores.ser files stay readable
+    private static final long serialVersionUID = -2592877606750384706L;
+
     private String nickname;      // Player's unique nickname
     private int score;            // Calculated score value
 
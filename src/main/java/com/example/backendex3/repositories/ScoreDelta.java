@@ -0,0 +1,77 @@
+package com.example.backendex3.repositories;
+
+/**
+ * A change of one player's position on the leaderboard, produced whenever a score is added or improved.
+ * Only the player whose score changed is described; the players between the old and the new rank
+ * each move down by one.
+ */
+public class ScoreDelta {
+
+    private final String nickname;  // Player whose score changed
+    private final int score;        // The player's new score
+    private final int oldRank;      // 1-based rank before the change, -1 for a new player
+    private final int newRank;      // 1-based rank after the change
+    private final long version;     // Leaderboard version right after the change
+
+    /**
+     * Constructs a new {@code ScoreDelta}.
+     *
+     * @param nickname the player whose score changed
+     * @param score    the player's new score
+     * @param oldRank  the 1-based rank before the change, or -1 if the player was not on the leaderboard
+     * @param newRank  the 1-based rank after the change
+     * @param version  the leaderboard version right after the change
+     */
+    public ScoreDelta(String nickname, int score, int oldRank, int newRank, long version) {
+        this.nickname = nickname;
+        this.score = score;
+        this.oldRank = oldRank;
+        this.newRank = newRank;
+        this.version = version;
+    }
+
+    /**
+     * Returns the player whose score changed.
+     *
+     * @return the nickname
+     */
+    public String getNickname() {
+        return nickname;
+    }
+
+    /**
+     * Returns the player's new score.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the player's rank before the change.
+     *
+     * @return the 1-based rank, or -1 if the player was not on the leaderboard
+     */
+    public int getOldRank() {
+        return oldRank;
+    }
+
+    /**
+     * Returns the player's rank after the change.
+     *
+     * @return the 1-based rank
+     */
+    public int getNewRank() {
+        return newRank;
+    }
+
+    /**
+     * Returns the leaderboard version right after the change, as reported by {@link ScoreRepository#getVersion()}.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.backendex3.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic index over the leaderboard.
+ * Players are kept in a treap ordered by score (descending), with ties ordered by who reached the score first.
+ * Every node also stores the size of its subtree, so updating a score, looking up a player's rank and
+ * selecting the player at a given rank all cost O(log n). Nicknames are matched case-insensitively.
+ * This class is not thread-safe; callers must synchronize access.
+ */
+class ScoreRankIndex {
+
+    /**
+     * A single player in the treap.
+     */
+    private static final class Node {
+        private final Score score;
+        private final long sequence;        // Order in which the score was reached, breaks ties
+        private final int priority;         // Random heap priority keeping the tree balanced
+        private Node left;
+        private Node right;
+        private int size = 1;               // Number of nodes in this subtree
+
+        private Node(Score score, long sequence) {
+            this.score = score;
+            this.sequence = sequence;
+            this.priority = ThreadLocalRandom.current().nextInt();
+        }
+    }
+
+    private final Map<String, Node> byNickname = new HashMap<>();
+    private Node root;
+    private long nextSequence;
+
+    /**
+     * Returns the number of players in the index.
+     *
+     * @return the leaderboard size
+     */
+    int size() {
+        return byNickname.size();
+    }
+
+    /**
+     * Adds a player's score, or replaces their existing score if the new one is higher.
+     *
+     * @param newScore the score to add
+     * @return true if the score was added or improved; false if the player already has an equal or higher score
+     */
+    boolean update(Score newScore) {
+        String key = key(newScore.getNickname());
+        Node existing = byNickname.get(key);
+
+        if (existing != null) {
+            if (newScore.getScore() <= existing.score.getScore()) {
+                return false;
+            }
+            root = remove(root, existing);
+        }
+
+        Node node = new Node(newScore, nextSequence++);
+        root = insert(root, node);
+        byNickname.put(key, node);
+        return true;
+    }
+
+    /**
+     * Returns the stored score of a player.
+     *
+     * @param nickname the player's nickname
+     * @return the player's {@link Score}, or {@code null} if the player is not on the leaderboard
+     */
+    Score get(String nickname) {
+        Node node = byNickname.get(key(nickname));
+        return node == null ? null : node.score;
+    }
+
+    /**
+     * Returns the rank of a player.
+     *
+     * @param nickname the player's nickname
+     * @return the 1-based rank of the player, or -1 if the player is not on the leaderboard
+     */
+    int rankOf(String nickname) {
+        Node node = byNickname.get(key(nickname));
+        if (node == null) {
+            return -1;
+        }
+
+        int rank = 0;
+        Node current = root;
+        while (current != node) {
+            if (precedes(node, current)) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank + size(current.left) + 1;
+    }
+
+    /**
+     * Returns the score at a given position of the leaderboard.
+     *
+     * @param index the 0-based position
+     * @return the {@link Score} at that position, or {@code null} if the index is out of bounds
+     */
+    Score scoreAt(int index) {
+        if (index < 0 || index >= size()) {
+            return null;
+        }
+
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current.score;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Returns a slice of the leaderboard in rank order.
+     * Only the requested entries are visited, so the cost is O(log n + limit).
+     *
+     * @param offset the 0-based position of the first entry
+     * @param limit  the maximum number of entries to return
+     * @return the scores in the requested range
+     */
+    List<Score> range(int offset, int limit) {
+        List<Score> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, limit, result);
+        return result;
+    }
+
+    /**
+     * Returns the whole leaderboard in rank order.
+     *
+     * @return all scores, highest first
+     */
+    List<Score> toList() {
+        return range(0, size());
+    }
+
+    private static void collect(Node node, int offset, int limit, List<Score> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, result);
+        }
+        if (offset <= leftSize && result.size() < limit) {
+            result.add(node.score);
+        }
+        collect(node.right, Math.max(0, offset - leftSize - 1), limit, result);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (newNode.priority > node.priority) {
+            Node[] parts = split(node, newNode);
+            newNode.left = parts[0];
+            newNode.right = parts[1];
+            return resize(newNode);
+        }
+        if (precedes(newNode, node)) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return resize(node);
+    }
+
+    /**
+     * Splits a subtree into the nodes preceding {@code pivot} and the nodes following it.
+     */
+    private static Node[] split(Node node, Node pivot) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (precedes(node, pivot)) {
+            Node[] parts = split(node.right, pivot);
+            node.right = parts[0];
+            parts[0] = resize(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, pivot);
+        node.left = parts[1];
+        parts[1] = resize(node);
+        return parts;
+    }
+
+    private static Node remove(Node node, Node target) {
+        if (node == target) {
+            return merge(node.left, node.right);
+        }
+        if (precedes(target, node)) {
+            node.left = remove(node.left, target);
+        } else {
+            node.right = remove(node.right, target);
+        }
+        return resize(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+
+    /**
+     * Checks whether node {@code a} ranks above node {@code b}:
+     * higher scores come first, and equal scores are ordered by who reached them first.
+     */
+    private static boolean precedes(Node a, Node b) {
+        if (a.score.getScore() != b.score.getScore()) {
+            return a.score.getScore() > b.score.getScore();
+        }
+        return a.sequence < b.sequence;
+    }
+
+    private static Node resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static String key(String nickname) {
+        return nickname.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,44 +1,221 @@
 package com.example.backendex3.repositories;
 
+import com.example.backendex3.storage.AppendOnlyLog;
+import com.example.backendex3.storage.BinaryFormat;
+import com.example.backendex3.storage.CoalescingWriter;
+import com.example.backendex3.storage.DurabilityMode;
+import com.example.backendex3.storage.FileMetrics;
+import com.example.backendex3.storage.LegacyFormatConverter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Repository class for managing score persistence.
- * This class handles reading and writing score data to a binary file using ObjectStreams.
- * Thread-safe operations are ensured using synchronized methods.
+ * Scores are kept in memory as the source of truth, indexed by a {@link ScoreRankIndex} so that ranks
+ * can be looked up without scanning the leaderboard.
+ * On disk the leaderboard is a snapshot file in the {@link BinaryFormat} plus an append-only log of
+ * {@code (nickname, score, timestamp)} records; both are replayed at startup. Every improved score is
+ * appended to the log, and once the log grows past a configurable size it is compacted into a new snapshot.
+ * Improved scores are applied to the leaderboard right away and handed to a {@link CoalescingWriter}, whose
+ * thread appends them to the log; several improvements of the same player before a write are logged once.
+ * Depending on {@code persistence.durability}, submitters either wait until their score is durable,
+ * concurrent submissions sharing a single fsync, or return as soon as the leaderboard is updated.
+ * Either way the leaderboard is updated first, and a failed write is not rolled back: in {@code sync} mode only
+ * submissions that returned normally are guaranteed to survive a restart.
+ * Thread-safe operations are ensured using a read-write lock: lookups share the read lock and never wait for
+ * each other, and since it is not a monitor, virtual threads blocked on it never pin a carrier thread.
+ * Lock waits, reads and writes of the snapshot and the log, and the leaderboard size are published as metrics.
  */
 @Repository
 public class ScoreRepository {
 
-    private static final String SCORES_FILE = "scores.ser";
+    private final Path snapshotFile;
+    private final int compactAfter;
+    private final ScoreRankIndex leaderboard = new ScoreRankIndex();
+    private final AppendOnlyLog log;        // Written by the writer thread only
+    private final CoalescingWriter<String> writer;
+    private final TimedLock readLock;       // Read and write side of the same lock, which guards the leaderboard
+    private final TimedLock writeLock;
+    private final FileMetrics snapshotMetrics;
+    private final FileMetrics logMetrics;
+    private boolean closed;                 // Guarded by writeLock
+    private volatile long version;          // Number of leaderboard changes so far, written while holding writeLock
+    private final List<Consumer<ScoreDelta>> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Retrieves all scores from the serialized file.
+     * Initializes the repository by loading the snapshot and replaying the score log on top of it.
      *
-     * @return List of all scores in the leaderboard.
-     * @throws IOException if there's an error reading the file.
+     * @param snapshotFile  path of the leaderboard snapshot
+     * @param logFile       path of the append-only score log
+     * @param fsyncEvery    number of logged scores after which the log is forced to disk (0 leaves it to the OS);
+     *                      ignored in sync durability mode, where every write is forced before it is acknowledged
+     * @param compactAfter  number of logged scores after which the log is compacted into the snapshot
+     * @param durability    {@code sync}, {@code async} or {@code batched}, see {@link DurabilityMode}
+     * @param flushInterval in batched mode, longest time a score waits to be logged, in milliseconds
+     * @param flushThreshold in batched mode, number of pending scores that triggers a write
+     * @param meterRegistry registry publishing the lock, file and leaderboard metrics
      */
-    @SuppressWarnings("unchecked")
-    public synchronized List<Score> getAllScores() throws IOException {
-        List<Score> scores = new ArrayList<>();
-        File file = new File(SCORES_FILE);
+    public ScoreRepository(@Value("${scores.file:scores.bin}") String snapshotFile,
+                           @Value("${scores.log.file:scores.log}") String logFile,
+                           @Value("${scores.log.fsync-every:1}") int fsyncEvery,
+                           @Value("${scores.log.compact-after:10000}") int compactAfter,
+                           @Value("${persistence.durability:sync}") String durability,
+                           @Value("${persistence.flush-interval-ms:100}") long flushInterval,
+                           @Value("${persistence.flush-threshold:1000}") int flushThreshold,
+                           MeterRegistry meterRegistry) {
+        DurabilityMode mode = DurabilityMode.parse(durability);
+        this.snapshotFile = Paths.get(snapshotFile);
+        this.compactAfter = compactAfter;
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = TimedLock.readLockOf(lock, meterRegistry, "scores");
+        this.writeLock = TimedLock.writeLockOf(lock, meterRegistry, "scores");
+        this.snapshotMetrics = new FileMetrics(meterRegistry, "scores");
+        this.logMetrics = new FileMetrics(meterRegistry, "scores.log");
+        loadScores();
 
-        if (!file.exists()) {
-            return scores;
+        try {
+            // Forcing after every append makes each write of the writer, a whole batch, one fsync
+            this.log = new AppendOnlyLog(Paths.get(logFile), mode == DurabilityMode.SYNC ? 1 : fsyncEvery);
+            long start = System.nanoTime();
+            log.replay(payload -> leaderboard.update(decode(payload)));
+            logMetrics.recordRead(start, Files.size(log.getPath()));
         }
+        catch (IOException e) {
+            throw new RuntimeException("Error loading score log from file: " + e.getMessage(), e);
+        }
+
+        this.writer = new CoalescingWriter<>("score-writer", mode,
+                flushInterval, flushThreshold, this::writeRecords);
+        Gauge.builder("scores.leaderboard.size", this, ScoreRepository::getScoreCount)
+                .description("Number of players on the leaderboard")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the leaderboard snapshot into memory.
+     * If the snapshot doesn't exist, a {@code .ser} file written by earlier versions is loaded instead
+     * and converted on the next compaction; if neither exists, the leaderboard remains empty.
+     * Any I/O errors result in a runtime exception.
+     */
+    private void loadScores() {
+        Path legacyFile = LegacyFormatConverter.legacyPathFor(snapshotFile);
+        if (!Files.exists(snapshotFile) && !Files.exists(legacyFile)) return;
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            scores = (List<Score>) ois.readObject();
-        } catch (ClassNotFoundException e) {
-            throw new IOException("Error reading scores file", e);
-        } catch (EOFException e) {
-            // Empty file, return empty list
-            return scores;
+        try {
+            long start = System.nanoTime();
+            boolean legacy = !Files.exists(snapshotFile);
+            List<Score> loadedScores = legacy
+                    ? LegacyFormatConverter.readLegacyScores(legacyFile)
+                    : BinaryFormat.readScores(snapshotFile);
+            snapshotMetrics.recordRead(start, Files.size(legacy ? legacyFile : snapshotFile));
+            for (Score score : loadedScores) {
+                leaderboard.update(score);
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error loading scores from file: " + e.getMessage(), e);
         }
+    }
 
-        return scores;
+    /**
+     * Retrieves all scores from memory.
+     *
+     * @return A copy of the leaderboard, sorted by score in descending order.
+     */
+    public List<Score> getAllScores() {
+        readLock.lock();
+        try {
+            return leaderboard.toList();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves a page of the leaderboard without copying the rest of it.
+     *
+     * @param offset The 0-based position of the first score to return.
+     * @param limit  The maximum number of scores to return.
+     * @return The scores in the requested range, sorted by score in descending order.
+     */
+    public List<Score> getScores(int offset, int limit) {
+        readLock.lock();
+        try {
+            return leaderboard.range(offset, limit);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of players on the leaderboard.
+     *
+     * @return The leaderboard size.
+     */
+    public int getScoreCount() {
+        readLock.lock();
+        try {
+            return leaderboard.size();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the version of the leaderboard, which increases with every change since the application started.
+     * It is incremented after a change is visible, so scores read after the version are at least as new as that version.
+     *
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the rank of a player in the leaderboard.
+     *
+     * @param nickname The nickname to look for (case-insensitive).
+     * @return The 1-based rank of the player, or -1 if the player is not on the leaderboard.
+     */
+    public int getRank(String nickname) {
+        readLock.lock();
+        try {
+            return leaderboard.rankOf(nickname);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the score at a given position of the leaderboard.
+     *
+     * @param index The 0-based position in the leaderboard.
+     * @return The {@link Score} at that position, or {@code null} if the index is out of bounds.
+     */
+    public Score getScoreAt(int index) {
+        readLock.lock();
+        try {
+            return leaderboard.scoreAt(index);
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
 
@@ -51,52 +228,150 @@ public class ScoreRepository {
      * @return true if the score was added or updated; false if no change was made.
      * @throws IOException if there's an error writing to the file.
      */
-    public synchronized boolean saveScore(Score newScore) throws IOException {
+    public boolean saveScore(Score newScore) throws IOException {
+        return submitScore(newScore).isChanged();
+    }
 
-        List<Score> scores = getAllScores();
-        boolean updated = false;
+    /**
+     * Submits a score to the leaderboard.
+     * The leaderboard is updated right away; an improved score is then handed to the writer thread, which
+     * logs it together with any other pending scores. In {@code sync} durability mode this waits until
+     * the score is durable, otherwise it returns immediately. A score whose write fails stays on the
+     * leaderboard until the next restart, but this method then throws.
+     *
+     * @param newScore The new {@link Score} to save or update.
+     * @return The outcome of the submission, including the player's rank.
+     * @throws IOException if there's an error writing to the file.
+     */
+    public ScoreSubmission submitScore(Score newScore) throws IOException {
+        CompletableFuture<Void> written = null;
+        boolean changed;
+        int rank;
 
-        // Check if player with the same nickname already exists
-        for (int i = 0; i < scores.size(); i++) {
-            if (scores.get(i).getNickname().equalsIgnoreCase(newScore.getNickname())) {
-                if (newScore.getScore() > scores.get(i).getScore()) {
-                    scores.set(i, newScore);
-                    updated = true;
-                }
-                break;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Score repository is closed, cannot save score");
+            }
+            byte[] record = encode(newScore);    // Encoded first, so a score that cannot be logged never reaches the leaderboard
+            int oldRank = listeners.isEmpty() ? -1 : leaderboard.rankOf(newScore.getNickname());
+            changed = leaderboard.update(newScore);
+            if (changed) {
+                written = writer.submit(newScore.getNickname().toLowerCase(Locale.ROOT), record);
+                version++;
+            }
+            rank = leaderboard.rankOf(newScore.getNickname());
+            if (changed && !listeners.isEmpty()) {
+                ScoreDelta delta = new ScoreDelta(newScore.getNickname(), newScore.getScore(), oldRank, rank, version);
+                listeners.forEach(listener -> listener.accept(delta));
             }
         }
-        // Add new score if player doesn't exist
-        if (!updated && !playerExists(scores, newScore.getNickname())) {
-            scores.add(newScore);
-            updated = true;
+        finally {
+            writeLock.unlock();
         }
 
-        if (updated) {
-            // Sort scores in descending order before saving
-            scores.sort(Comparator.comparingInt(Score::getScore).reversed());
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SCORES_FILE))) {
-                oos.writeObject(scores);
-            }
+        if (written != null) {
+            writer.awaitWritten(written);
         }
+        return new ScoreSubmission(changed, rank);
+    }
 
-        return updated;
+    /**
+     * Registers a listener notified of every added or improved score.
+     * Listeners are called while the leaderboard is locked, in the order of the changes,
+     * so they must return quickly and never block.
+     *
+     * @param listener receives the {@link ScoreDelta} of each change
+     */
+    public void addScoreListener(Consumer<ScoreDelta> listener) {
+        listeners.add(listener);
     }
 
+    /**
+     * Appends a batch of scores to the log with one write, and compacts the log once it is large enough.
+     * Runs on the writer thread.
+     *
+     * @param records The encoded scores.
+     * @throws IOException if there's an error writing to the file.
+     */
+    private void writeRecords(List<byte[]> records) throws IOException {
+        long start = System.nanoTime();
+        logMetrics.recordWrite(start, log.append(records));
+        if (log.size() >= compactAfter) {
+            compact();
+        }
+    }
 
     /**
-     * Checks if a player with the given nickname already exists in the leaderboard.
+     * Writes the in-memory leaderboard to a new snapshot and empties the score log.
+     * The snapshot is written to a temporary file and moved into place, so a crash mid-write
+     * leaves the previous snapshot and the log intact. Replaying a log on top of a snapshot that
+     * already contains it is harmless, since a player's score only ever moves up; for the same reason,
+     * scores applied to the leaderboard but not logged yet may safely be included in the snapshot.
+     * Runs on the writer thread.
      *
-     * @param scores List of scores to check.
-     * @param nickname The nickname to look for.
-     * @return true if the player exists, false otherwise.
-     */
-    private boolean playerExists(List<Score> scores, String nickname) {
-        for (Score score : scores) {
-            if (score.getNickname().equalsIgnoreCase(nickname)) {
-                return true;
-            }
+     * @throws IOException if there's an error writing to the file.
+     */
+    private void compact() throws IOException {
+        List<Score> snapshot;
+        readLock.lock();
+        try {
+            snapshot = leaderboard.toList();
+        }
+        finally {
+            readLock.unlock();
+        }
+        long start = System.nanoTime();
+        BinaryFormat.writeScores(snapshotFile, snapshot);
+        snapshotMetrics.recordWrite(start, Files.size(snapshotFile));
+        log.reset();
+    }
+
+    /**
+     * Writes every score that is not logged yet and stops the writer thread,
+     * then syncs and closes the score log when the application shuts down.
+     *
+     * @throws IOException if the log cannot be written or closed.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            closed = true;
+        }
+        finally {
+            writeLock.unlock();
+        }
+        try {
+            writer.close();
+        }
+        finally {
+            log.close();
+        }
+    }
+
+    /**
+     * Encodes a score as a log record: nickname, score and the time it was logged.
+     * The nickname is written like the snapshot's, so it has no length limit.
+     */
+    private static byte[] encode(Score score) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryFormat.writeString(out, score.getNickname());
+            out.writeInt(score.getScore());
+            out.writeLong(System.currentTimeMillis());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a log record back into a score; the timestamp is only kept in the log.
+     */
+    private static Score decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String nickname = BinaryFormat.readString(in);
+            int score = in.readInt();
+            return new Score(nickname, score);
         }
-        return false;
     }
-}
\ No newline at end of file
+}
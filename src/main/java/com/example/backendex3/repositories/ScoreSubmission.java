@@ -0,0 +1,40 @@
+package com.example.backendex3.repositories;
+
+/**
+ * Result of submitting a score to the leaderboard.
+ * Holds whether the submission changed the leaderboard and the player's rank once the change was persisted.
+ */
+public class ScoreSubmission {
+
+    private final boolean changed;   // True if the score was added or improved
+    private final int rank;          // Player's 1-based rank after the submission
+
+    /**
+     * Constructs a new {@code ScoreSubmission}.
+     *
+     * @param changed whether the score was added or improved
+     * @param rank    the player's 1-based rank after the submission
+     */
+    public ScoreSubmission(boolean changed, int rank) {
+        this.changed = changed;
+        this.rank = rank;
+    }
+
+    /**
+     * Returns whether the submission added or improved the player's score.
+     *
+     * @return true if the leaderboard changed, false otherwise
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * Returns the player's rank after the submission.
+     *
+     * @return the 1-based rank
+     */
+    public int getRank() {
+        return rank;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.backendex3.repositories;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.UUID;
 
 /**
@@ -11,27 +13,40 @@ import java.util.UUID;
  * Validation constraints:
  * Category and word must be non-empty and contain only alphabetic characters (a–z or A–Z).
  * Hint must be non-empty.
+ * <p>
+ * To keep the word bank small in memory, the id is stored as the two halves of its UUID and the category as its
+ * code in the {@link CategoryDictionary}; both are still read and written as strings. The category is kept as given
+ * until the {@link WordRepository} indexes the entry, which replaces it with its code, so unvalidated input never
+ * enters the dictionary.
  */
+@JsonPropertyOrder({"id", "category", "word", "hint"})
 public class WordEntry implements Serializable {
 
-    private String id;
+    // Matches the id computed for the original class, so existing words.ser files stay readable
+    private static final long serialVersionUID = -6329690245992733744L;
 
-    @NotEmpty
-    @Pattern(regexp = "[a-zA-Z]+", message="Category must contain only alphabetic characters (a–z or A–Z)")
-    private String category;
+    // The serialized form keeps the original string fields, whatever the in-memory representation
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", String.class),
+            new ObjectStreamField("category", String.class),
+            new ObjectStreamField("word", String.class),
+            new ObjectStreamField("hint", String.class)
+    };
+
+    private long idMostSignificantBits;
+    private long idLeastSignificantBits;
+    private String rawCategory;                         // The category as given, until the entry is indexed
+    private int category = CategoryDictionary.NONE;     // The category's code once the entry is indexed
 
-    @NotEmpty
-    @Pattern(regexp = "[a-zA-Z]+", message="Word must contain only alphabetic characters (a–z or A–Z)")
     private String word;
 
-    @NotEmpty
     private String hint;
 
     /**
      * Default constructor that initializes the entry with a randomly generated UUID.
      */
     public WordEntry(){
-        this.id = UUID.randomUUID().toString();
+        setId(UUID.randomUUID());
     }
 
     /**
@@ -44,8 +59,40 @@ public class WordEntry implements Serializable {
      * @throws IllegalArgumentException if any parameter is invalid or null (validation annotations enforce this).
      */
     public WordEntry(String category, String word, String hint) {
-        this.id = UUID.randomUUID().toString();
-        this.category = category;
+        setId(UUID.randomUUID());
+        setCategory(category);
+        this.word = word;
+        this.hint = hint;
+    }
+
+    /**
+     * Constructs a WordEntry with an existing ID, e.g. when loading it from storage.
+     *
+     * @param id       The UUID string of the entry.
+     * @param category The category of the word.
+     * @param word     The word itself.
+     * @param hint     A hint associated with the word.
+     */
+    public WordEntry(String id, String category, String word, String hint) {
+        setId(id);
+        setCategory(category);
+        this.word = word;
+        this.hint = hint;
+    }
+
+    /**
+     * Constructs a WordEntry from the two halves of its UUID, e.g. when loading it from a binary file.
+     *
+     * @param idMostSignificantBits  The most significant 64 bits of the entry's UUID.
+     * @param idLeastSignificantBits The least significant 64 bits of the entry's UUID.
+     * @param category               The category of the word.
+     * @param word                   The word itself.
+     * @param hint                   A hint associated with the word.
+     */
+    public WordEntry(long idMostSignificantBits, long idLeastSignificantBits, String category, String word, String hint) {
+        this.idMostSignificantBits = idMostSignificantBits;
+        this.idLeastSignificantBits = idLeastSignificantBits;
+        setCategory(category);
         this.word = word;
         this.hint = hint;
     }
@@ -55,21 +102,107 @@ public class WordEntry implements Serializable {
      *
      * @return UUID string of the word entry.
      */
-    public String getId() {return id;}
+    public String getId() {return getUuid().toString();}
 
     /**
      * Sets the unique identifier for this word entry.
+     * A {@code null} id keeps the entry's current id.
      *
      * @param id A string representing the UUID to assign.
+     * @throws IllegalArgumentException if the id is not a UUID.
+     */
+    public void setId(String id) {
+        if (id != null) {
+            setId(toUuid(id));
+        }
+    }
+
+    /**
+     * Returns the unique identifier of this word entry as a UUID.
+     *
+     * @return The UUID of the word entry.
+     */
+    @JsonIgnore
+    public UUID getUuid() {
+        return new UUID(idMostSignificantBits, idLeastSignificantBits);
+    }
+
+    /**
+     * Returns the most significant 64 bits of this entry's UUID.
+     *
+     * @return The high half of the id.
+     */
+    @JsonIgnore
+    public long getIdMostSignificantBits() {
+        return idMostSignificantBits;
+    }
+
+    /**
+     * Returns the least significant 64 bits of this entry's UUID.
+     *
+     * @return The low half of the id.
      */
-    public void setId(String id) {this.id = id;}
+    @JsonIgnore
+    public long getIdLeastSignificantBits() {
+        return idLeastSignificantBits;
+    }
+
+    /**
+     * Converts an id string to a UUID.
+     *
+     * @param id The id string.
+     * @return The matching UUID.
+     * @throws IllegalArgumentException if the id is {@code null} or not a UUID.
+     */
+    public static UUID toUuid(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be empty");
+        }
+        try {
+            return UUID.fromString(id);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid id: " + id);
+        }
+    }
+
+    private void setId(UUID id) {
+        this.idMostSignificantBits = id.getMostSignificantBits();
+        this.idLeastSignificantBits = id.getLeastSignificantBits();
+    }
 
     /**
      * Returns the category of the word.
      *
      * @return The category string.
      */
+    @NotEmpty
+    @Pattern(regexp = "[a-zA-Z]+", message="Category must contain only alphabetic characters (a–z or A–Z)")
     public String getCategory() {
+        return rawCategory != null ? rawCategory : CategoryDictionary.nameOf(category);
+    }
+
+    /**
+     * Returns the code of this entry's category in the {@link CategoryDictionary}, without assigning one.
+     *
+     * @return The category code, or {@link CategoryDictionary#NONE} if the category is not set or not in the dictionary.
+     */
+    @JsonIgnore
+    public int getCategoryCode() {
+        return rawCategory != null ? CategoryDictionary.lookup(rawCategory) : category;
+    }
+
+    /**
+     * Adds this entry's category to the {@link CategoryDictionary} and keeps only its code from then on.
+     * Only called by the repository for validated, lowercase entries it is about to index.
+     *
+     * @return The category code.
+     */
+    int internCategory() {
+        if (rawCategory != null) {
+            category = CategoryDictionary.intern(rawCategory);
+            rawCategory = null;
+        }
         return category;
     }
 
@@ -79,7 +212,8 @@ public class WordEntry implements Serializable {
      * @param category A string containing only alphabetic characters.
      */
     public void setCategory(String category) {
-        this.category = category;
+        this.rawCategory = category;
+        this.category = CategoryDictionary.NONE;
     }
 
     /**
@@ -87,6 +221,8 @@ public class WordEntry implements Serializable {
      *
      * @return The word string.
      */
+    @NotEmpty
+    @Pattern(regexp = "[a-zA-Z]+", message="Word must contain only alphabetic characters (a–z or A–Z)")
     public String getWord() {
         return word;
     }
@@ -105,6 +241,7 @@ public class WordEntry implements Serializable {
      *
      * @return A hint string.
      */
+    @NotEmpty
     public String getHint() {
         return hint;
     }
@@ -128,4 +265,34 @@ public class WordEntry implements Serializable {
         setHint(other.getHint());
         setCategory(other.getCategory());
     }
+
+    /**
+     * Writes this entry in its original serialized form, with the id and category as strings.
+     *
+     * @param out The stream to write to.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("id", getId());
+        fields.put("category", getCategory());
+        fields.put("word", word);
+        fields.put("hint", hint);
+        out.writeFields();
+    }
+
+    /**
+     * Reads an entry written in the original serialized form.
+     *
+     * @param in The stream to read from.
+     * @throws IOException if the stream cannot be read.
+     * @throws ClassNotFoundException if a field's class cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        setId((String) fields.get("id", null));
+        setCategory((String) fields.get("category", null));
+        word = (String) fields.get("word", null);
+        hint = (String) fields.get("hint", null);
+    }
 }
@@ -1,53 +1,296 @@
 package com.example.backendex3.repositories;
 
+import com.example.backendex3.storage.AppendOnlyLog;
+import com.example.backendex3.storage.BinaryFormat;
+import com.example.backendex3.storage.CoalescingWriter;
+import com.example.backendex3.storage.DurabilityMode;
+import com.example.backendex3.storage.FileMetrics;
+import com.example.backendex3.storage.LegacyFormatConverter;
+import com.example.backendex3.storage.MappedWordBank;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Repository for managing a collection of {@link WordEntry} objects.
- * Word entries are stored in-memory and persisted to a serialized file on disk.
+ * Word entries are stored in-memory and persisted on disk as a snapshot file plus a journal of changes.
+ * Entries are indexed by id, by word and by category, so lookups never scan the whole word bank.
+ * The word index is kept sorted, so listing words in order or by prefix never sorts the word bank.
+ * Each category's entries are kept in an array that is replaced, never modified, on every change,
+ * so a random word can be picked from it without locking or allocating. These arrays are indexed by the
+ * category's code in the {@link CategoryDictionary}, so finding a category's words takes a single array read.
+ * Reads never lock: the indexes are concurrent maps and published entries are never modified,
+ * an update replaces the entry instead. The distinct categories and their word counts are cached and
+ * refreshed on every change, so listing them never scans the word bank.
+ * Writers take {@code writeLock} to apply their change and hand a journal record to a {@link CoalescingWriter},
+ * whose thread appends pending records to the journal with one write, so a single add, update or delete costs
+ * one small journal record rather than a rewrite of the whole word bank. Depending on {@code persistence.durability},
+ * writers then either wait until their record is durable or return as soon as the change is applied in memory.
+ * Changes are visible before they are written, and a failed write is not rolled back: in {@code sync} mode only
+ * changes whose writer returned normally are guaranteed to survive a restart.
+ * The journal is split into numbered segments: once the active segment holds enough records it is rotated,
+ * and a background thread writes a new snapshot and deletes the segments it covers. Every journal record
+ * carries a sequence number and the snapshot stores the last one it includes, so at startup the journal
+ * is replayed on top of the snapshot without applying any change twice.
  * This class provides thread-safe CRUD operations (create, read, update, delete)
- * and handles serialization/deserialization of the word list.
+ * and reads and writes the word list in the {@link BinaryFormat}.
+ * Locks are {@link ReentrantLock}s rather than monitors, so virtual threads blocked on them never pin a carrier thread.
+ * Waits for {@code writeLock}, reads and writes of the word bank file and the journal, and the number of words
+ * in each category are published as metrics.
+ * <p>
+ * With {@code words.storage=mapped} the word bank is instead served read-only from a {@link MappedWordBank},
+ * keeping the entries off the heap; every mutation is then rejected with an {@link UnsupportedOperationException}.
  */
 @Repository
 public class WordRepository {
 
-    private static final String WORD_FILE = "words.ser";
-    private static final List<WordEntry> words = new ArrayList<>();
+    private final Path wordFile;
+    private final Path journalFile;             // Journal segments are named <journalFile>.<generation>
+    private final int fsyncEvery;
+    private final int compactAfter;
+    private final MappedWordBank mappedBank;    // Set only in mapped storage mode
+    private final ExecutorService compactor;    // Writes snapshots in the background, set only in heap storage mode
+    private final Map<UUID, WordEntry> words = new ConcurrentHashMap<>();            // id -> entry
+    private final NavigableMap<String, WordEntry> wordIndex = new ConcurrentSkipListMap<>(); // word -> entry, sorted by word
+    private volatile AtomicReferenceArray<WordEntry[]> categoryIndex = new AtomicReferenceArray<>(0); // category code -> entries
+    private volatile Map<String, Integer> categoryCounts = Map.of(); // category -> number of words, by name
+    private volatile List<String> categories = List.of();            // distinct categories, by name
+    private final TimedLock writeLock;                             // Serializes changes to the word bank
+    private final ReentrantLock fileLock = new ReentrantLock();   // Serializes writes to the word file
+    private volatile long version;  // Sequence number of the last change applied, written while holding writeLock
+    private long savedVersion;   // Sequence number included in the snapshot on disk, guarded by fileLock
+    private final CoalescingWriter<UUID> writer;    // Appends journal records, set only in heap storage mode
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private AppendOnlyLog journal;      // Active journal segment, guarded by journalLock
+    private long journalGeneration;     // Number of the active journal segment, guarded by journalLock
+    private boolean compacting;         // Whether a background snapshot is being written, guarded by journalLock
+
+    private final FileMetrics wordFileMetrics;
+    private final FileMetrics journalMetrics;
+    private final MultiGauge categoryGauge;     // Words per category, one row per category
+
+    private static final byte ADD = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+
+    private static final int MAPPED_PAGE_SIZE = 1000;
 
     /**
-     * Initializes the repository by attempting to load existing word entries from file.
+     * Initializes the repository by attempting to load existing word entries from file,
+     * or by mapping the word bank file in mapped storage mode.
+     *
+     * @param wordFile    path of the word bank file
+     * @param storageMode {@code heap} to load the words into memory, {@code mapped} to serve them read-only from a mapped file
+     * @param mappedFile  path of the mapped word bank file, built from the word bank file when missing or outdated
+     * @param journalFile base path of the journal segments
+     * @param fsyncEvery  number of journaled changes after which the journal is forced to disk (0 leaves it to the OS);
+     *                    ignored in sync durability mode, where every write is forced before it is acknowledged
+     * @param compactAfter number of journaled changes after which the journal is compacted into the word bank file
+     * @param durability  {@code sync}, {@code async} or {@code batched}, see {@link DurabilityMode}
+     * @param flushInterval in batched mode, longest time a change waits to be journaled, in milliseconds
+     * @param flushThreshold in batched mode, number of pending changes that triggers a write
+     * @param meterRegistry registry publishing the lock, file and category metrics
      */
-    public WordRepository() {
-        loadWords();
+    public WordRepository(@Value("${words.file:words.bin}") String wordFile,
+                          @Value("${words.storage:heap}") String storageMode,
+                          @Value("${words.mapped-file:words.map}") String mappedFile,
+                          @Value("${words.journal.file:words.journal}") String journalFile,
+                          @Value("${words.journal.fsync-every:1}") int fsyncEvery,
+                          @Value("${words.journal.compact-after:10000}") int compactAfter,
+                          @Value("${persistence.durability:sync}") String durability,
+                          @Value("${persistence.flush-interval-ms:100}") long flushInterval,
+                          @Value("${persistence.flush-threshold:1000}") int flushThreshold,
+                          MeterRegistry meterRegistry) {
+        this.wordFile = Paths.get(wordFile);
+        this.journalFile = Paths.get(journalFile);
+        DurabilityMode mode = DurabilityMode.parse(durability);
+        // Forcing after every append makes each write of the writer, a whole batch, one fsync
+        this.fsyncEvery = mode == DurabilityMode.SYNC ? 1 : fsyncEvery;
+        this.compactAfter = compactAfter;
+        this.writeLock = TimedLock.of(new ReentrantLock(), meterRegistry, "words", "write");
+        this.wordFileMetrics = new FileMetrics(meterRegistry, "words");
+        this.journalMetrics = new FileMetrics(meterRegistry, "words.journal");
+        this.categoryGauge = MultiGauge.builder("words.category.size")
+                .description("Number of words in each category")
+                .register(meterRegistry);
+
+        if ("mapped".equalsIgnoreCase(storageMode)) {
+            this.compactor = null;
+            this.writer = null;
+            this.mappedBank = openMappedBank(Paths.get(mappedFile));
+            registerCategoryGauges();
+        }
+        else if ("heap".equalsIgnoreCase(storageMode)) {
+            this.mappedBank = null;
+            loadWords();
+            openJournal();
+            this.compactor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("word-compactor").daemon().factory());
+            this.writer = new CoalescingWriter<>("word-writer", mode,
+                    flushInterval, flushThreshold, this::writeJournal);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown word storage mode: " + storageMode);
+        }
     }
 
     /**
-     * Loads word entries from the serialized file.
-     * If the file doesn't exist, the list remains empty.
-     * Any deserialization or I/O errors result in a runtime exception.
+     * Reads the entries of the word bank file.
+     * If the file doesn't exist, a {@code .ser} file written by earlier versions is read instead.
+     *
+     * @return the stored entries and the journal sequence number they include; empty if neither file exists
+     * @throws IOException if the file cannot be read
      */
-    @SuppressWarnings("unchecked")
-    private void loadWords() {
+    private BinaryFormat.WordSnapshot readWordFile() throws IOException {
+        long start = System.nanoTime();
+        if (Files.exists(wordFile)) {
+            BinaryFormat.WordSnapshot snapshot = BinaryFormat.readWordSnapshot(wordFile);
+            wordFileMetrics.recordRead(start, Files.size(wordFile));
+            return snapshot;
+        }
+
+        Path legacyFile = LegacyFormatConverter.legacyPathFor(wordFile);
+        if (Files.exists(legacyFile)) {
+            BinaryFormat.WordSnapshot snapshot = new BinaryFormat.WordSnapshot(LegacyFormatConverter.readLegacyWords(legacyFile), 0);
+            wordFileMetrics.recordRead(start, Files.size(legacyFile));
+            return snapshot;
+        }
+        return new BinaryFormat.WordSnapshot(List.of(), 0);
+    }
+
+    /**
+     * Maps the word bank file for mapped storage mode, first building it from the word bank file
+     * if it is missing or older than that file; the word bank file is streamed rather than loaded. Changes journaled while running in heap storage mode
+     * are folded into the word bank file first. Any I/O errors result in a runtime exception.
+     *
+     * @param mappedFile path of the mapped word bank file
+     * @return the mapped word bank
+     */
+    private MappedWordBank openMappedBank(Path mappedFile) {
+        try {
+            if (!journalSegments().isEmpty()) {
+                loadWords();
+                writeLock.lock();
+                try {
+                    words.clear();
+                    wordIndex.clear();
+                    categoryIndex = new AtomicReferenceArray<>(0);
+                    refreshCategories();
+                }
+                finally {
+                    writeLock.unlock();
+                }
+            }
+            if (!Files.exists(mappedFile) || (Files.exists(wordFile)
+                    && Files.getLastModifiedTime(wordFile).compareTo(Files.getLastModifiedTime(mappedFile)) > 0)) {
+                if (Files.exists(wordFile)) {
+                    MappedWordBank.write(mappedFile, wordFile);
+                } else {
+                    MappedWordBank.write(mappedFile, readWordFile().getWords());
+                }
+            }
+            return new MappedWordBank(mappedFile);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error loading words from file: " + e.getMessage(), e);
+        }
+    }
 
-        File file = new File(WORD_FILE);
-        if (!file.exists()) return;
+    /**
+     * Loads word entries from the word bank file and replays the journal on top of them.
+     * Replayed changes are then folded into a new word bank file and the journal segments are deleted,
+     * so every run starts with an empty journal.
+     * A {@code .ser} file written by earlier versions is converted on the next snapshot;
+     * if no file exists, the list remains empty.
+     * Any I/O errors result in a runtime exception.
+     */
+    private void loadWords() {
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            List<WordEntry> loadedWords = (List<WordEntry>) ois.readObject();
-            synchronized (words) {
+        try {
+            BinaryFormat.WordSnapshot snapshot = readWordFile();
+            List<WordEntry> loadedWords = snapshot.getWords();
+            NavigableMap<Long, Path> segments = journalSegments();
+            List<WordEntry> replayed = null;
+            writeLock.lock();
+            try {
                 words.clear();
-                words.addAll(loadedWords);
+                wordIndex.clear();
+                Map<Integer, List<WordEntry>> byCategory = new HashMap<>();
+                for (WordEntry entry : loadedWords) {
+                    words.put(entry.getUuid(), entry);
+                    wordIndex.put(entry.getWord(), entry);
+                    byCategory.computeIfAbsent(entry.internCategory(), category -> new ArrayList<>()).add(entry);
+                }
+                AtomicReferenceArray<WordEntry[]> loadedIndex = new AtomicReferenceArray<>(CategoryDictionary.size());
+                byCategory.forEach((category, entries) -> loadedIndex.set(category, entries.toArray(new WordEntry[0])));
+                categoryIndex = loadedIndex;
+                version = snapshot.getSequence();
+                savedVersion = snapshot.getSequence();
+
+                for (Path segment : segments.values()) {
+                    long start = System.nanoTime();
+                    try (AppendOnlyLog segmentLog = new AppendOnlyLog(segment, 0)) {
+                        segmentLog.replay(this::applyRecord);
+                    }
+                    journalMetrics.recordRead(start, Files.size(segment));
+                }
+                refreshCategories();
+                if (version > snapshot.getSequence()) {
+                    replayed = new ArrayList<>(words.values());
+                }
+            }
+            finally {
+                writeLock.unlock();
+            }
+
+            if (replayed != null) {
+                writeToFile(replayed, version);
+            }
+            for (Path segment : segments.values()) {
+                Files.delete(segment);
             }
         }
         catch (IOException e){
             throw new RuntimeException("Error loading words from file: " + e.getMessage(), e);
         }
-        catch (ClassNotFoundException e) {
-            throw new RuntimeException("Error deserializing word data: " + e.getMessage(), e);
+    }
+
+    /**
+     * Opens the first segment of a new journal. Any I/O errors result in a runtime exception.
+     */
+    private void openJournal() {
+        try {
+            journalLock.lock();
+            try {
+                journalGeneration = 1;
+                journal = new AppendOnlyLog(segmentPath(journalGeneration), fsyncEvery);
+            }
+            finally {
+                journalLock.unlock();
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Error loading word journal from file: " + e.getMessage(), e);
         }
     }
 
@@ -58,14 +301,8 @@ public class WordRepository {
      * @return The matching {@link WordEntry}, or {@code null} if not found.
      */
     public WordEntry findByWord(String word) {
-        synchronized (words) {
-            for (WordEntry entry : words) {
-                if (entry.getWord().equals(word)) {
-                    return entry;
-                }
-            }
-            return null;
-        }
+        if (mappedBank != null) return mappedBank.findByWord(word);
+        return wordIndex.get(word);
     }
 
     /**
@@ -73,16 +310,12 @@ public class WordRepository {
      *
      * @param id The ID to search for.
      * @return The matching {@link WordEntry}, or {@code null} if not found.
+     * @throws IllegalArgumentException if the id is not a UUID.
      */
     public WordEntry findById(String id) {
-        synchronized (words) {
-            for (WordEntry entry : words) {
-                if (entry.getId().equals(id)) {
-                    return entry;
-                }
-            }
-            return null;
-        }
+        if (id == null) return null;
+        if (mappedBank != null) return mappedBank.findById(id);
+        return words.get(WordEntry.toUuid(id));
     }
 
     /**
@@ -92,49 +325,159 @@ public class WordRepository {
      * @return A list of matching {@link WordEntry} objects.
      */
     public List<WordEntry> findByCategory(String category) {
+        if (mappedBank != null) return mappedBank.findByCategory(category);
 
-        List<WordEntry> foundWords = new ArrayList<>();
+        WordEntry[] foundWords = categoryWords(CategoryDictionary.lookup(category));
+        return foundWords == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(foundWords));
+    }
 
-        synchronized (words) {
-            for (WordEntry entry : words) {
-                if (entry.getCategory().equals(category)) {
-                    foundWords.add(entry);
-                }
-            }
+    /**
+     * Picks a random word entry from a specific category.
+     * Reads the category's current array without locking and allocates nothing.
+     *
+     * @param category The category to pick from.
+     * @return A random {@link WordEntry} of the category, or {@code null} if the category has no words.
+     */
+    public WordEntry findRandomByCategory(String category) {
+        if (mappedBank != null) return mappedBank.findRandomByCategory(category);
+
+        WordEntry[] categoryWords = categoryWords(CategoryDictionary.lookup(category));
+        if (categoryWords == null) {
+            return null;
+        }
+        return categoryWords[ThreadLocalRandom.current().nextInt(categoryWords.length)];
+    }
+
+    /**
+     * Picks a word entry from a specific category by its position in the category.
+     * Reads the category's current array without locking, so the chosen index and the entry come from the same array.
+     *
+     * @param category The category to pick from.
+     * @param pick     Chooses an index from the number of words in the category (at least 1).
+     * @return The {@link WordEntry} at the chosen index, or {@code null} if the category has no words.
+     */
+    public WordEntry findInCategory(String category, IntUnaryOperator pick) {
+        if (mappedBank != null) return mappedBank.findInCategory(category, pick);
+
+        WordEntry[] categoryWords = categoryWords(CategoryDictionary.lookup(category));
+        if (categoryWords == null) {
+            return null;
         }
+        return categoryWords[pick.applyAsInt(categoryWords.length)];
+    }
+
+    /**
+     * Returns the distinct categories of the stored words.
+     *
+     * @return An unmodifiable list of category names, sorted alphabetically.
+     */
+    public List<String> getCategories() {
+        if (mappedBank != null) return mappedBank.getCategories();
+        return categories;
+    }
+
+    /**
+     * Returns the version of the word bank: the sequence number of the last change applied.
+     * It increases with every add, update and delete and is kept across restarts, so equal versions
+     * always mean equal contents. It is set after a change is visible, so contents read after the version
+     * are at least as new as that version.
+     *
+     * @return The current version.
+     */
+    public long getVersion() {
+        return version;
+    }
 
-        return foundWords;
+    /**
+     * Returns the number of words stored in each category.
+     *
+     * @return An unmodifiable map from category name to word count, sorted by category name.
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        if (mappedBank != null) return mappedBank.getCategoryCounts();
+        return categoryCounts;
     }
 
     /**
      * Updates an existing word entry by its ID.
+     * The stored entry is replaced by a new one rather than modified, so concurrent readers
+     * always see either the old or the new values, never a mix of both. The new entry is indexed
+     * before the old one is removed, so a reader looking the entry up by id always finds one of them.
      *
      * @param id           The ID of the word entry to update.
      * @param updatedEntry The new values to apply.
      * @return {@code true} if the entry was found and updated; {@code false} otherwise.
+     * @throws IllegalArgumentException if another entry already has the new word.
      */
     public boolean updateById(String id, WordEntry updatedEntry) {
-        synchronized (words) {
-            for (WordEntry entry : words) {
-                if (entry.getId().equals(id)) {
-                    entry.updateWord(updatedEntry);
-                    saveToFile();
-                    return true;
-                }
+        checkWritable();
+        CompletableFuture<Void> written;
+
+        writeLock.lock();
+        try {
+            WordEntry entry = words.get(WordEntry.toUuid(id));
+            if (entry == null) {
+                return false;
+            }
+            WordEntry sameWord = wordIndex.get(updatedEntry.getWord());
+            if (sameWord != null && sameWord != entry) {
+                throw new IllegalArgumentException("Word already exists");
             }
-            return false;
+
+            WordEntry replacement = new WordEntry(entry.getIdMostSignificantBits(), entry.getIdLeastSignificantBits(),
+                    updatedEntry.getCategory(), updatedEntry.getWord(), updatedEntry.getHint());
+            long sequence = version + 1;
+            written = writer.submit(replacement.getUuid(), encodeRecord(UPDATE, sequence, replacement));
+            index(replacement);
+            unindex(entry);
+            refreshCategories();
+            version = sequence;
+        }
+        finally {
+            writeLock.unlock();
         }
+
+        awaitWritten(written);
+        return true;
     }
 
     /**
-     * Returns a copy of all stored word entries.
+     * Returns a copy of all stored word entries, sorted by word.
      *
-     * @return A new {@link ArrayList} containing all {@link WordEntry} objects.
+     * @return A new {@link ArrayList} containing all {@link WordEntry} objects in lexicographic order.
      */
     public ArrayList<WordEntry> getWords() {
-        synchronized (words) {
-            return new ArrayList<>(words);
+        if (mappedBank != null) return new ArrayList<>(mappedBank.getWords(null, 0, mappedBank.size()));
+        return new ArrayList<>(wordIndex.values());
+    }
+
+    /**
+     * Returns a page of the stored word entries, sorted by word.
+     * The sorted index is walked from the first matching word, so only the skipped and returned
+     * entries are visited.
+     *
+     * @param prefix Only words starting with this prefix are returned (assumed to be already lowercase),
+     *               or {@code null} to list all words.
+     * @param offset The number of matching entries to skip.
+     * @param limit  The maximum number of entries to return.
+     * @return The matching {@link WordEntry} objects in lexicographic order.
+     */
+    public List<WordEntry> getWords(String prefix, int offset, int limit) {
+        if (mappedBank != null) return mappedBank.getWords(prefix, offset, limit);
+
+        NavigableMap<String, WordEntry> matching = prefix == null || prefix.isEmpty()
+                ? wordIndex
+                : wordIndex.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+
+        List<WordEntry> page = new ArrayList<>(Math.min(limit, 64));
+        Iterator<WordEntry> iterator = matching.values().iterator();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
         }
+        return page;
     }
 
     /**
@@ -144,24 +487,138 @@ public class WordRepository {
      * @return true if deletion was successful, false if not found
      */
     public boolean deleteById(String id) {
-        synchronized (words) {
-            boolean removed = words.removeIf(entry -> entry.getId().equals(id));
-            if (removed) {
-                saveToFile();
+        checkWritable();
+        CompletableFuture<Void> written;
+
+        writeLock.lock();
+        try {
+            WordEntry entry = words.get(WordEntry.toUuid(id));
+            if (entry == null) {
+                return false;
             }
-            return removed;
+
+            long sequence = version + 1;
+            written = writer.submit(entry.getUuid(), encodeRecord(DELETE, sequence, entry));
+            unindex(entry);
+            refreshCategories();
+            version = sequence;
+        }
+        finally {
+            writeLock.unlock();
         }
+
+        awaitWritten(written);
+        return true;
     }
 
     /**
-     * Serializes and saves the current list of words to the file.
+     * Saves the current list of words to the file right away and deletes the journal segments it covers.
+     * Pending journal records are written first, whatever the durability mode.
      * @throws RuntimeException if the operation fails.
      */
     public void saveToFile() throws RuntimeException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(WORD_FILE))) {
-            synchronized (words) {
-                oos.writeObject(words);
+        checkWritable();
+        List<WordEntry> snapshot;
+        long snapshotVersion;
+        long coveredGeneration;
+
+        try {
+            writer.flush();
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to save words to file: " + e.getMessage(), e);
+        }
+
+        journalLock.lock();
+        try {
+            coveredGeneration = journalGeneration;
+            rotateJournal();
+            writeLock.lock();
+            try {
+                snapshot = new ArrayList<>(words.values());
+                snapshotVersion = version;
             }
+            finally {
+                writeLock.unlock();
+            }
+        }
+        finally {
+            journalLock.unlock();
+        }
+
+        writeSnapshot(snapshot, snapshotVersion, coveredGeneration);
+    }
+
+    /**
+     * Appends a batch of records to the active journal segment with one write, and starts a background
+     * snapshot once the segment holds enough records. Runs on the journal writer thread.
+     *
+     * @param records The encoded changes, in sequence order.
+     * @throws IOException if the journal cannot be written.
+     */
+    private void writeJournal(List<byte[]> records) throws IOException {
+        journalLock.lock();
+        try {
+            long start = System.nanoTime();
+            journalMetrics.recordWrite(start, journal.append(records));
+            if (!compacting && journal.size() >= compactAfter) {
+                startCompaction();
+            }
+        }
+        finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * Rotates the active journal segment and writes a snapshot covering it in the background.
+     * The snapshot is taken after the rotation, so it includes every record of the old segments, and changes
+     * made while it is written go to the new segment. Records the snapshot already includes but that were
+     * still waiting to be journaled are skipped on replay, since their sequence numbers are not above its own.
+     * Must be called while holding {@code journalLock}.
+     */
+    private void startCompaction() {
+        long coveredGeneration = journalGeneration;
+        rotateJournal();
+        List<WordEntry> snapshot;
+        long snapshotVersion;
+        writeLock.lock();
+        try {
+            snapshot = new ArrayList<>(words.values());
+            snapshotVersion = version;
+        }
+        finally {
+            writeLock.unlock();
+        }
+        compacting = true;
+
+        compactor.execute(() -> {
+            try {
+                writeSnapshot(snapshot, snapshotVersion, coveredGeneration);
+            }
+            finally {
+                journalLock.lock();
+                try {
+                    compacting = false;
+                }
+                finally {
+                    journalLock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Closes the active journal segment and opens the next one.
+     * Must be called while holding {@code journalLock}.
+     *
+     * @throws RuntimeException if the new segment cannot be opened.
+     */
+    private void rotateJournal() throws RuntimeException {
+        try {
+            journal.close();
+            journalGeneration++;
+            journal = new AppendOnlyLog(segmentPath(journalGeneration), fsyncEvery);
         }
         catch (IOException e) {
             throw new RuntimeException("Failed to save words to file: " + e.getMessage(), e);
@@ -169,15 +626,444 @@ public class WordRepository {
     }
 
     /**
-     * Adds a new word entry to the repository and persists it to file.
+     * Writes a snapshot of the word list and then deletes the journal segments it covers.
+     * If the snapshot cannot be written, the segments are kept and replayed at the next startup.
+     *
+     * @param snapshot          The word list to write.
+     * @param snapshotVersion   The sequence number of the last change included in the word list.
+     * @param coveredGeneration The newest journal segment whose changes are all included in the word list.
+     * @throws RuntimeException if the operation fails.
+     */
+    private void writeSnapshot(List<WordEntry> snapshot, long snapshotVersion, long coveredGeneration) throws RuntimeException {
+        writeToFile(snapshot, snapshotVersion);
+        try {
+            for (Path segment : journalSegments().headMap(coveredGeneration, true).values()) {
+                Files.deleteIfExists(segment);
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to delete word journal: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the word list to the file, unless the same or a newer snapshot was already written.
+     * Runs outside {@code writeLock}, so neither readers nor other writers wait for the disk.
+     * The file is written to a temporary file first and then moved into place by {@link BinaryFormat}.
+     *
+     * @param snapshot        The word list to write.
+     * @param snapshotVersion The sequence number of the last change included in the word list.
+     * @throws RuntimeException if the operation fails.
+     */
+    private void writeToFile(List<WordEntry> snapshot, long snapshotVersion) throws RuntimeException {
+        fileLock.lock();
+        try {
+            if (snapshotVersion <= savedVersion) {
+                return;
+            }
+
+            try {
+                long start = System.nanoTime();
+                BinaryFormat.writeWords(wordFile, snapshot, snapshotVersion);
+                wordFileMetrics.recordWrite(start, Files.size(wordFile));
+            }
+            catch (IOException e) {
+                throw new RuntimeException("Failed to save words to file: " + e.getMessage(), e);
+            }
+            savedVersion = snapshotVersion;
+        }
+        finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a new word entry to the repository and persists it to the journal.
      *
      *@param wordEntry The {@link WordEntry} to add.
+     * @throws IllegalArgumentException if an entry with the same word or id already exists.
      */
     public void addWord(WordEntry wordEntry) {
-        synchronized (words) {
-            words.add(wordEntry);
-            saveToFile();
+        checkWritable();
+        CompletableFuture<Void> written;
+
+        writeLock.lock();
+        try {
+            checkNew(wordEntry);
+            long sequence = version + 1;
+            written = writer.submit(wordEntry.getUuid(), encodeRecord(ADD, sequence, wordEntry));
+            index(wordEntry);
+            refreshCategories();
+            version = sequence;
         }
+        finally {
+            writeLock.unlock();
+        }
+
+        awaitWritten(written);
     }
-}
 
+    /**
+     * Adds a batch of new word entries, handed to the journal writer together so they share a single write.
+     * Each category's entry array is copied once for the whole batch rather than once per entry.
+     *
+     * Nothing is added if any entry's word or id already exists.
+     *
+     * @param wordEntries The {@link WordEntry} objects to add.
+     * @throws IllegalArgumentException if an entry's word or id already exists, or appears twice in the batch.
+     */
+    public void addWords(List<WordEntry> wordEntries) {
+        checkWritable();
+        if (wordEntries.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<Void> written;
+        writeLock.lock();
+        try {
+            Set<String> batchWords = new HashSet<>();
+            Set<UUID> batchIds = new HashSet<>();
+            for (WordEntry wordEntry : wordEntries) {
+                checkNew(wordEntry);
+                if (!batchWords.add(wordEntry.getWord())) {
+                    throw new IllegalArgumentException("Word already exists");
+                }
+                if (!batchIds.add(wordEntry.getUuid())) {
+                    throw new IllegalArgumentException("Id already exists");
+                }
+            }
+
+            long sequence = version;
+            List<UUID> ids = new ArrayList<>(wordEntries.size());
+            List<byte[]> records = new ArrayList<>(wordEntries.size());
+            for (WordEntry wordEntry : wordEntries) {
+                ids.add(wordEntry.getUuid());
+                records.add(encodeRecord(ADD, ++sequence, wordEntry));
+            }
+            written = writer.submit(ids, records);
+
+            Map<Integer, List<WordEntry>> byCategory = new HashMap<>();
+            for (WordEntry wordEntry : wordEntries) {
+                words.put(wordEntry.getUuid(), wordEntry);
+                wordIndex.put(wordEntry.getWord(), wordEntry);
+                byCategory.computeIfAbsent(wordEntry.internCategory(), category -> new ArrayList<>()).add(wordEntry);
+            }
+            growCategoryIndex();
+            byCategory.forEach((code, added) -> {
+                WordEntry[] categoryWords = categoryIndex.get(code);
+                int existing = categoryWords == null ? 0 : categoryWords.length;
+                WordEntry[] updated = categoryWords == null ? new WordEntry[added.size()] : Arrays.copyOf(categoryWords, existing + added.size());
+                for (int i = 0; i < added.size(); i++) {
+                    updated[existing + i] = added.get(i);
+                }
+                categoryIndex.set(code, updated);
+            });
+            refreshCategories();
+            version = sequence;
+        }
+        finally {
+            writeLock.unlock();
+        }
+
+        awaitWritten(written);
+    }
+
+    /**
+     * Passes every stored word entry to an action, sorted by word, without copying the word bank.
+     * Entries changed while the iteration runs may or may not be seen.
+     *
+     * @param action The action to run for each {@link WordEntry}.
+     */
+    public void forEachWord(Consumer<WordEntry> action) {
+        if (mappedBank == null) {
+            wordIndex.values().forEach(action);
+            return;
+        }
+        for (int offset = 0; offset < mappedBank.size(); offset += MAPPED_PAGE_SIZE) {
+            mappedBank.getWords(null, offset, MAPPED_PAGE_SIZE).forEach(action);
+        }
+    }
+
+    /**
+     * Closes the mapped word bank, if any, when the application shuts down.
+     * In heap storage mode, writes every pending journal record, waits for a running background snapshot
+     * and then syncs and closes the journal.
+     *
+     * @throws IOException if a file cannot be written or closed.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (mappedBank != null) {
+            mappedBank.close();
+        }
+        if (writer != null) {
+            try {
+                writer.close();
+            }
+            finally {
+                compactor.shutdown();
+                try {
+                    compactor.awaitTermination(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                journalLock.lock();
+                try {
+                    journal.close();
+                }
+                finally {
+                    journalLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until a journal record is written when running in {@code sync} durability mode.
+     * Must be called after releasing {@code writeLock}. If the record cannot be written, the change stays applied
+     * in memory, but the caller gets an error and must not assume it is saved.
+     *
+     * @param written The future returned by the journal writer.
+     * @throws RuntimeException if the journal cannot be written.
+     */
+    private void awaitWritten(CompletableFuture<Void> written) throws RuntimeException {
+        try {
+            writer.awaitWritten(written);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Failed to save words to file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encodes a change as a journal record.
+     *
+     * @param operation The kind of change: {@code ADD}, {@code UPDATE} or {@code DELETE}.
+     * @param sequence  The sequence number of the change.
+     * @param entry     The added or updated entry, or the deleted one.
+     * @return The journal record.
+     */
+    private static byte[] encodeRecord(byte operation, long sequence, WordEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(operation);
+            out.writeLong(sequence);
+            out.writeLong(entry.getIdMostSignificantBits());
+            out.writeLong(entry.getIdLeastSignificantBits());
+            if (operation != DELETE) {
+                BinaryFormat.writeString(out, entry.getCategory());
+                BinaryFormat.writeString(out, entry.getWord());
+                BinaryFormat.writeString(out, entry.getHint());
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);  // Cannot happen when writing to memory
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Applies a journal record while loading, unless the snapshot already includes it.
+     * Must be called while holding {@code writeLock}.
+     *
+     * @param payload The journal record.
+     * @throws IOException if the record is malformed.
+     */
+    private void applyRecord(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte operation = in.readByte();
+            long sequence = in.readLong();
+            long mostSignificantBits = in.readLong();
+            long leastSignificantBits = in.readLong();
+            if (sequence <= version) {
+                return;
+            }
+            if (operation != ADD && operation != UPDATE && operation != DELETE) {
+                throw new IOException("Unknown word journal operation " + operation);
+            }
+
+            WordEntry existing = words.get(new UUID(mostSignificantBits, leastSignificantBits));
+            if (existing != null) {
+                unindex(existing);
+            }
+            if (operation != DELETE) {
+                index(new WordEntry(mostSignificantBits, leastSignificantBits,
+                        BinaryFormat.readString(in), BinaryFormat.readString(in), BinaryFormat.readString(in)));
+            }
+            version = sequence;
+        }
+    }
+
+    /**
+     * Lists the journal segments on disk.
+     *
+     * @return The segment files by generation, oldest first.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private NavigableMap<Long, Path> journalSegments() throws IOException {
+        NavigableMap<Long, Path> segments = new TreeMap<>();
+        String prefix = journalFile.getFileName() + ".";
+        Path directory = journalFile.toAbsolutePath().getParent();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                file -> file.getFileName().toString().startsWith(prefix))) {
+            for (Path file : files) {
+                String generation = file.getFileName().toString().substring(prefix.length());
+                if (!generation.isEmpty() && generation.chars().allMatch(Character::isDigit)) {
+                    segments.put(Long.parseLong(generation), file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the file of a journal segment.
+     *
+     * @param generation The segment's number.
+     * @return The segment's path.
+     */
+    private Path segmentPath(long generation) {
+        return journalFile.resolveSibling(journalFile.getFileName() + "." + generation);
+    }
+
+    /**
+     * Rejects mutations when the word bank is served read-only from a mapped file.
+     *
+     * @throws UnsupportedOperationException in mapped storage mode.
+     */
+    private void checkWritable() {
+        if (mappedBank != null) {
+            throw new UnsupportedOperationException("Word bank is read-only in mapped storage mode");
+        }
+    }
+
+    /**
+     * Returns the entries of a category.
+     *
+     * @param code The category's code in the {@link CategoryDictionary}.
+     * @return The category's current entry array, or {@code null} if the category has no words.
+     */
+    private WordEntry[] categoryWords(int code) {
+        AtomicReferenceArray<WordEntry[]> index = categoryIndex;
+        return code >= 0 && code < index.length() ? index.get(code) : null;
+    }
+
+    /**
+     * Rejects an entry whose word or id is already stored. The service checks this too, but only this check,
+     * made while holding {@code writeLock}, holds against concurrent additions.
+     *
+     * @param entry The {@link WordEntry} about to be added.
+     * @throws IllegalArgumentException if an entry with the same word or id already exists.
+     */
+    private void checkNew(WordEntry entry) {
+        if (wordIndex.containsKey(entry.getWord())) {
+            throw new IllegalArgumentException("Word already exists");
+        }
+        if (words.containsKey(entry.getUuid())) {
+            throw new IllegalArgumentException("Id already exists");
+        }
+    }
+
+    /**
+     * Adds an entry to the id, word and category indexes.
+     * Must be called while holding {@code writeLock}.
+     *
+     * @param entry The {@link WordEntry} to index.
+     */
+    private void index(WordEntry entry) {
+        words.put(entry.getUuid(), entry);
+        wordIndex.put(entry.getWord(), entry);
+
+        int code = entry.internCategory();
+        growCategoryIndex();
+
+        WordEntry[] categoryWords = categoryIndex.get(code);
+        if (categoryWords == null) {
+            categoryIndex.set(code, new WordEntry[]{entry});
+        } else {
+            WordEntry[] updated = Arrays.copyOf(categoryWords, categoryWords.length + 1);
+            updated[categoryWords.length] = entry;
+            categoryIndex.set(code, updated);
+        }
+    }
+
+    /**
+     * Grows the category index to cover every code assigned so far, for categories first seen after loading.
+     * Must be called while holding {@code writeLock}.
+     */
+    private void growCategoryIndex() {
+        if (categoryIndex.length() >= CategoryDictionary.size()) {
+            return;
+        }
+        AtomicReferenceArray<WordEntry[]> grown = new AtomicReferenceArray<>(CategoryDictionary.size());
+        for (int i = 0; i < categoryIndex.length(); i++) {
+            grown.set(i, categoryIndex.get(i));
+        }
+        categoryIndex = grown;
+    }
+
+    /**
+     * Removes an entry from the id, word and category indexes.
+     * Must be called while holding {@code writeLock}.
+     *
+     * @param entry The {@link WordEntry} to remove.
+     */
+    private void unindex(WordEntry entry) {
+        words.remove(entry.getUuid(), entry);        // The id may already belong to the entry's replacement
+        wordIndex.remove(entry.getWord(), entry);    // The word may already belong to another entry while replaying a coalesced journal
+
+        int code = entry.getCategoryCode();
+        WordEntry[] categoryWords = categoryWords(code);
+        int position = categoryWords == null ? -1 : Arrays.asList(categoryWords).indexOf(entry);
+        if (position < 0) {
+            return;
+        }
+        if (categoryWords.length == 1) {
+            categoryIndex.set(code, null);
+            return;
+        }
+
+        WordEntry[] updated = new WordEntry[categoryWords.length - 1];
+        System.arraycopy(categoryWords, 0, updated, 0, position);
+        System.arraycopy(categoryWords, position + 1, updated, position, updated.length - position);
+        categoryIndex.set(code, updated);
+    }
+
+    /**
+     * Rebuilds the cached category list and word counts from the category index.
+     * Costs O(number of categories); must be called while holding {@code writeLock}.
+     */
+    private void refreshCategories() {
+        Map<String, Integer> counts = new TreeMap<>();
+        AtomicReferenceArray<WordEntry[]> index = categoryIndex;
+        for (int code = 0; code < index.length(); code++) {
+            WordEntry[] entries = index.get(code);
+            if (entries != null) {
+                counts.put(CategoryDictionary.nameOf(code), entries.length);
+            }
+        }
+
+        List<String> previous = categories;
+        categoryCounts = Collections.unmodifiableMap(counts);
+        categories = List.copyOf(counts.keySet());
+        if (!categories.equals(previous)) {
+            registerCategoryGauges();
+        }
+    }
+
+    /**
+     * Publishes one {@code words.category.size} gauge row per current category, removing the rows of
+     * categories that no longer exist. Each row reads the cached word counts, so it only needs
+     * registering again when a category appears or disappears.
+     */
+    private void registerCategoryGauges() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (String category : getCategories()) {
+            rows.add(MultiGauge.Row.of(Tags.of("category", category), this,
+                    repository -> repository.getCategoryCounts().getOrDefault(category, 0)));
+        }
+        categoryGauge.register(rows, true);
+    }
+}
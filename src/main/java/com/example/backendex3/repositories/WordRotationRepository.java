@@ -0,0 +1,183 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory cursors giving every player the words of a category in a shuffled order without repeats.
+ * <p>
+ * A player's cursor over a category is just a random seed, a position and the category's size. The word at a position is found by
+ * passing the position through a pseudo-random permutation of the category's indexes keyed by the seed, so the
+ * shuffled order is computed one index at a time and never stored. The permutation is a four-round Feistel
+ * network over the smallest even number of bits covering the category, cycle-walked back into the category's
+ * range. After every word of the category was given once, the next pass uses another permutation.
+ * While a category is unchanged, a player sees each of its words once per pass. Added or removed words change
+ * the permutation's range, so the cursor restarts with a new pass on the first draw after a change: words of the
+ * interrupted pass may come again, but the new pass sees every word once, and no draw straddles two permutations.
+ * <p>
+ * Cursors are changed only inside {@link ConcurrentHashMap#compute}, so concurrent draws of one player are
+ * serialized without locks of their own. Cursors left unused for the configured time expire and are swept in
+ * the background, and their number is capped: a player without a cursor once the cap is reached gets uniformly
+ * random words instead.
+ */
+@Repository
+public class WordRotationRepository {
+
+    private static final int ROUNDS = 4;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * A player's position in the shuffled order of a category.
+     */
+    private static final class Cursor {
+        private final long seed;
+        private final int size;     // Size of the category the position counts through
+        private long position;
+        private long lastUseNanos;
+
+        private Cursor(long seed, int size) {
+            this.seed = seed;
+            this.size = size;
+        }
+    }
+
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();   // "<nickname>/<category>" -> cursor
+    private final long ttlNanos;
+    private final int maxCursors;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("word-rotation-sweeper").daemon().factory());
+
+    /**
+     * Creates the store and schedules the sweep of expired cursors.
+     *
+     * @param ttl           idle time after which a cursor expires, in milliseconds
+     * @param maxCursors    number of cursors beyond which new players get uniformly random words
+     * @param meterRegistry registry publishing the cursor count
+     */
+    public WordRotationRepository(@Value("${words.rotation.ttl-ms:86400000}") long ttl,
+                                  @Value("${words.rotation.max-cursors:1000000}") int maxCursors,
+                                  MeterRegistry meterRegistry) {
+        if (ttl <= 0 || maxCursors <= 0) {
+            throw new IllegalArgumentException("Word rotation TTL and maximum count must be positive");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+        this.maxCursors = maxCursors;
+        Gauge.builder("words.rotation.cursors", cursors, Map::size)
+                .description("Players' cursors over the shuffled words of a category")
+                .register(meterRegistry);
+
+        long sweepInterval = Math.max(1, Math.min(ttl / 4, TimeUnit.MINUTES.toMillis(10)));
+        sweeper.scheduleWithFixedDelay(this::removeExpired, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the index of the next word a player gets from a category, and advances the player's cursor.
+     * A size other than the one of the cursor's last draw restarts the cursor.
+     *
+     * @param nickname the player's nickname, case-insensitive
+     * @param category the category's name
+     * @param size     the current number of words in the category, at least 1
+     * @return an index between 0 (inclusive) and {@code size} (exclusive)
+     */
+    public int next(String nickname, String category, int size) {
+        String key = nickname.toLowerCase(Locale.ROOT) + '/' + category;
+        long now = System.nanoTime();
+        long[] holder = new long[2];     // The cursor's seed and position before this draw
+        Cursor cursor = cursors.compute(key, (k, current) -> {
+            if (current == null || now - current.lastUseNanos > ttlNanos || current.size != size) {
+                if (current == null && cursors.size() >= maxCursors) {
+                    return null;
+                }
+                current = new Cursor(ThreadLocalRandom.current().nextLong(), size);
+            }
+            holder[0] = current.seed;
+            holder[1] = current.position++;
+            current.lastUseNanos = now;
+            return current;
+        });
+        if (cursor == null) {
+            return ThreadLocalRandom.current().nextInt(size);
+        }
+
+        // Each pass over the category gets its own permutation
+        long pass = holder[1] / size;
+        return permute((int) (holder[1] % size), size, holder[0] + pass * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Returns the number of cursors, including expired ones not swept yet.
+     *
+     * @return the cursor count
+     */
+    public int size() {
+        return cursors.size();
+    }
+
+    /**
+     * Maps an index to its place in a pseudo-random permutation of {@code [0, size)}.
+     * A balanced Feistel network is a permutation of {@code [0, 4^halfBits)} whatever its round function;
+     * applying it again to results outside {@code [0, size)} (cycle walking) restricts it to the range.
+     * The domain is less than four times the range, so a few rounds of walking are enough on average.
+     *
+     * @param index an index between 0 (inclusive) and {@code size} (exclusive)
+     * @param size  the size of the permuted range, at least 1
+     * @param key   the permutation's key
+     * @return the permuted index, between 0 (inclusive) and {@code size} (exclusive)
+     */
+    static int permute(int index, int size, long key) {
+        int bits = Math.max(2, Integer.SIZE - Integer.numberOfLeadingZeros(size - 1));
+        int halfBits = (bits + 1) / 2;
+        int mask = (1 << halfBits) - 1;
+
+        int value = index;
+        do {
+            int left = value >>> halfBits;
+            int right = value & mask;
+            for (int round = 0; round < ROUNDS; round++) {
+                int mixed = left ^ ((int) mix(key + round * GOLDEN_GAMMA + right) & mask);
+                left = right;
+                right = mixed;
+            }
+            value = (left << halfBits) | right;
+        } while (Integer.compareUnsigned(value, size) >= 0);   // The domain is 2^32 for categories beyond 2^30 words
+        return value;
+    }
+
+    /**
+     * Scrambles the bits of a value (the SplitMix64 finalizer), used as the Feistel round function.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Removes every expired cursor, re-checking each under its entry's lock so a cursor in use is kept.
+     */
+    private void removeExpired() {
+        long now = System.nanoTime();
+        for (String key : cursors.keySet()) {
+            cursors.computeIfPresent(key, (k, cursor) -> now - cursor.lastUseNanos > ttlNanos ? null : cursor);
+        }
+    }
+
+    /**
+     * Stops the sweep when the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backendex3.services;
+
+import com.example.backendex3.dto.GameStateDTO;
+import com.example.backendex3.repositories.GameSession;
+import com.example.backendex3.repositories.GameSessionRepository;
+import com.example.backendex3.repositories.ScoreSubmission;
+import com.example.backendex3.repositories.WordEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Service class for games played on the server.
+ * The server picks the word and keeps it from the player, applies the guesses and times the game,
+ * so the score saved when the word is guessed depends only on what the server saw.
+ */
+@Service
+public class GameService {
+
+    private final GameSessionRepository gameSessionRepository;
+    private final WordService wordService;
+    private final ScoreService scoreService;
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param gameSessionRepository the store of the games in progress
+     * @param wordService           the service drawing the words
+     * @param scoreService          the service scoring won games and saving the scores
+     */
+    @Autowired
+    public GameService(GameSessionRepository gameSessionRepository, WordService wordService, ScoreService scoreService) {
+        this.gameSessionRepository = gameSessionRepository;
+        this.wordService = wordService;
+        this.scoreService = scoreService;
+    }
+
+    /**
+     * Starts a game with the player's next word from a category, so the player does not get a word again
+     * before having played every word of the category.
+     *
+     * @param nickname the player's nickname, under which the score is saved
+     * @param category the category to draw the word from
+     * @return the state of the new game, with the word fully masked
+     * @throws IllegalArgumentException if category is null or empty
+     * @throws ResponseStatusException with status 404 (NOT_FOUND) if the category has no words,
+     *                                 or 503 (SERVICE_UNAVAILABLE) if too many games are in progress
+     */
+    public GameStateDTO startGame(String nickname, String category) {
+        WordEntry entry = wordService.getRandomWordByCategory(category, nickname);
+        if (entry == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No words found in category: " + category);
+        }
+
+        GameSession session = gameSessionRepository.create(nickname, entry);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many games in progress");
+        }
+        // No one else knows the new session's id yet, so it is safe to read outside the repository
+        return new GameStateDTO(session);
+    }
+
+    /**
+     * Applies a guess to a game. The guess that reveals the last hidden letter wins the game:
+     * its score is computed from the server's timing and saved, and the game is closed.
+     *
+     * @param id    the game's id
+     * @param guess a single letter, or the whole word
+     * @return the state of the game after the guess, with the score and rank if it was won
+     * @throws IllegalArgumentException if the guess is not alphabetic or the game is already won
+     * @throws ResponseStatusException with status 404 (NOT_FOUND) if there is no such game or it expired
+     * @throws IOException if the score cannot be saved
+     */
+    public GameStateDTO guess(String id, String guess) throws IOException {
+        if (guess == null || !guess.matches("[a-zA-Z]+")) {
+            throw new IllegalArgumentException("Guess must contain only alphabetic characters (a–z or A–Z)");
+        }
+        String normalized = guess.toLowerCase();
+        UUID sessionId = toSessionId(id);
+
+        // The session is read while the guess is applied, since it must not change in between
+        GameSession[] won = new GameSession[1];
+        GameStateDTO state = gameSessionRepository.update(sessionId, session -> {
+            if (session.guess(normalized, System.nanoTime())) {
+                won[0] = session;
+            }
+            return new GameStateDTO(session);
+        });
+        if (state == null) {
+            throw gameNotFound(id);
+        }
+        if (won[0] == null) {
+            return state;
+        }
+
+        // A won session no longer changes, so it is safe to read outside the repository
+        GameSession session = won[0];
+        gameSessionRepository.remove(sessionId);
+        int score = scoreService.calculateScore(session.getTimeTakenMS(), session.getFailedAttempts(),
+                session.isUsedHint(), session.getWordLength());
+        ScoreSubmission submission = scoreService.savePlayerScore(session.getNickname(), score);
+        state.setResult(score, submission.getRank(), submission.isChanged());
+        return state;
+    }
+
+    /**
+     * Reveals the hint of a game's word. Using the hint lowers the game's score.
+     *
+     * @param id the game's id
+     * @return the hint
+     * @throws ResponseStatusException with status 404 (NOT_FOUND) if there is no such game or it expired
+     */
+    public String useHint(String id) {
+        String hint = gameSessionRepository.update(toSessionId(id), GameSession::useHint);
+        if (hint == null) {
+            throw gameNotFound(id);
+        }
+        return hint;
+    }
+
+    /**
+     * Parses a game id; an id that is not a UUID belongs to no game.
+     */
+    private static UUID toSessionId(String id) {
+        try {
+            return UUID.fromString(id);
+        }
+        catch (IllegalArgumentException e) {
+            throw gameNotFound(id);
+        }
+    }
+
+    /**
+     * Builds the error for a game that does not exist, was won, or expired.
+     */
+    private static ResponseStatusException gameNotFound(String id) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Game not found: " + id);
+    }
+}
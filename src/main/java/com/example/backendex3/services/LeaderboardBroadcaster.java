@@ -0,0 +1,305 @@
+package com.example.backendex3.services;
+
+import com.example.backendex3.repositories.ScoreDelta;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes leaderboard changes to subscribers as Server-Sent Events.
+ * <p>
+ * Every added or improved score reported by the {@link ScoreRepository} is collected until the next tick.
+ * Several changes of the same player within a tick are coalesced into one delta, from the player's rank before
+ * the first change to the rank after the last one, and keeps the place of the player's first change: deltas are listed
+ * in the order players first changed within the tick. Each tick serializes the collected deltas once, as a single
+ * {@code scores} event, and hands that event to every subscriber. The event's id is the leaderboard version after
+ * its last change, and its data holds the deltas and {@code previousVersion}, the version before its first change.
+ * Coalescing skips versions within an event, but every change between the two versions is in it.
+ * <p>
+ * Each subscriber has a bounded queue of events. A sender task drains it only while it holds events, so idle
+ * subscribers cost no thread. A subscriber whose queue is full is too slow to keep up: its stream is closed,
+ * and its client reconnects and fetches the leaderboard again.
+ * <p>
+ * A new subscriber first receives a {@code version} event with the current leaderboard version. A client
+ * fetches the leaderboard and applies the next event whose {@code previousVersion} is the version it holds,
+ * skipping events whose id is not above it. Any other event means changes were missed, such as an event that
+ * could not be serialized, and the client refetches the leaderboard.
+ */
+@Service
+public class LeaderboardBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardBroadcaster.class);
+
+    /**
+     * A connected client, with the events waiting to be sent to it.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        /**
+         * Queues an event and makes sure a sender task is draining the queue; drops the subscriber if the queue is full.
+         */
+        private void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                dropped.increment();
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * Sends the queued events until the queue is empty.
+         * The check after clearing {@code sending} catches events queued while the last one was being sent.
+         */
+        private void drain() {
+            do {
+                try {
+                    Set<ResponseBodyEmitter.DataWithMediaType> event;
+                    while ((event = queue.poll()) != null) {
+                        emitter.send(event);
+                    }
+                }
+                catch (IOException | IllegalStateException e) {
+                    // The client went away or the stream was completed; the emitter's callbacks remove it
+                    remove(this);
+                    return;
+                }
+                finally {
+                    sending.set(false);
+                }
+            } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("leaderboard-broadcaster").daemon().factory());
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter dropped;
+    private final Counter serializationErrors;
+
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private LinkedHashMap<String, ScoreDelta> pending = new LinkedHashMap<>();  // Guarded by pendingLock
+    private long pendingPreviousVersion;                                        // Version before the first pending delta, guarded by pendingLock
+    private long pendingVersion;                                                // Version after the last pending delta, guarded by pendingLock
+    private long lastEventNanos = System.nanoTime();                            // Used by the ticker thread only
+
+    /**
+     * Subscribes to the repository's score changes and starts the ticks.
+     *
+     * @param scoreRepository repository reporting the score changes
+     * @param objectMapper    mapper serializing the deltas
+     * @param meterRegistry   registry publishing the subscriber count, the number of dropped subscribers
+     *                        and the number of events that could not be serialized
+     * @param tickInterval    time between two events, in milliseconds
+     * @param heartbeat       time without events after which a heartbeat comment is sent, in milliseconds
+     * @param bufferSize      number of events a subscriber may fall behind before it is dropped
+     * @param maxSubscribers  number of subscribers beyond which new ones are refused
+     */
+    public LeaderboardBroadcaster(ScoreRepository scoreRepository,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${leaderboard.stream.tick-ms:250}") long tickInterval,
+                                  @Value("${leaderboard.stream.heartbeat-ms:15000}") long heartbeat,
+                                  @Value("${leaderboard.stream.buffer-size:64}") int bufferSize,
+                                  @Value("${leaderboard.stream.max-subscribers:10000}") int maxSubscribers) {
+        if (tickInterval <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Leaderboard stream tick and buffer size must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeat);
+        this.dropped = Counter.builder("leaderboard.stream.dropped")
+                .description("Subscribers dropped for falling too far behind")
+                .register(meterRegistry);
+        this.serializationErrors = Counter.builder("leaderboard.stream.serialization.errors")
+                .description("Events lost because their deltas could not be serialized")
+                .register(meterRegistry);
+        Gauge.builder("leaderboard.stream.subscribers", subscribers, Set::size)
+                .description("Clients subscribed to the leaderboard stream")
+                .register(meterRegistry);
+
+        scoreRepository.addScoreListener(this::collect);
+        ticker.scheduleAtFixedRate(this::tick, tickInterval, tickInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Subscribes a client to the leaderboard stream.
+     *
+     * @param version the current leaderboard version, sent as the first event
+     * @return the emitter streaming the events, which never times out
+     * @throws ResponseStatusException with status 503 (SERVICE_UNAVAILABLE) if too many clients are subscribed
+     */
+    public SseEmitter subscribe(long version) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many leaderboard subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // Queued before the subscriber is visible to the ticker, so it is always the first event
+        subscriber.offer(SseEmitter.event()
+                .id(Long.toString(version))
+                .name("version")
+                .data(Map.of("version", version), MediaType.APPLICATION_JSON)
+                .build());
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Returns the number of subscribed clients.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Collects a delta until the next tick, merging it with an earlier delta of the same player.
+     * Called by the repository while it holds its lock, so this only touches the pending map.
+     */
+    private void collect(ScoreDelta delta) {
+        String key = delta.getNickname().toLowerCase(Locale.ROOT);
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                pendingPreviousVersion = delta.getVersion() - 1;    // The repository bumps the version once per change
+            }
+            // Replacing a key keeps its place, so the player stays where its first change put it
+            ScoreDelta earlier = pending.get(key);
+            pendingVersion = delta.getVersion();
+            pending.put(key, earlier == null ? delta : new ScoreDelta(delta.getNickname(), delta.getScore(),
+                    earlier.getOldRank(), delta.getNewRank(), delta.getVersion()));
+        }
+        finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the deltas collected since the last tick to every subscriber as one event,
+     * or a heartbeat comment if nothing was sent for a while. Runs on the ticker thread.
+     */
+    private void tick() {
+        List<ScoreDelta> deltas;
+        long previousVersion;
+        long version;
+        pendingLock.lock();
+        try {
+            previousVersion = pendingPreviousVersion;
+            version = pendingVersion;
+            if (pending.isEmpty()) {
+                deltas = List.of();
+            }
+            else {
+                deltas = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            }
+        }
+        finally {
+            pendingLock.unlock();
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        if (!deltas.isEmpty()) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("previousVersion", previousVersion);
+            data.put("deltas", deltas);
+            try {
+                event = SseEmitter.event()
+                        .id(Long.toString(version))
+                        .name("scores")
+                        .data(objectMapper.writeValueAsString(data), MediaType.APPLICATION_JSON)
+                        .build();
+            }
+            catch (JsonProcessingException e) {
+                serializationErrors.increment();
+                logger.error("Failed to serialize {} leaderboard deltas, the event is lost", deltas.size(), e);
+                return;
+            }
+        }
+        else if (System.nanoTime() - lastEventNanos >= heartbeatNanos) {
+            event = SseEmitter.event().comment("heartbeat").build();
+        }
+        else {
+            return;
+        }
+
+        lastEventNanos = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Stops handing events to a subscriber. Safe to call several times.
+     */
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Stops the ticks and closes every stream when the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        ticker.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+        senders.shutdown();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backendex3.services;
 
 import com.example.backendex3.repositories.Score;
 import com.example.backendex3.repositories.ScoreRepository;
+import com.example.backendex3.repositories.ScoreSubmission;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -17,6 +18,9 @@ import java.util.List;
 @Service
 public class ScoreService {
 
+    /** Largest number of scores returned by a single leaderboard page. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final ScoreRepository scoreRepository;
 
     /**
@@ -71,23 +75,15 @@ public class ScoreService {
     /**
      * Saves a player's score to the leaderboard.
      * If the player already exists and the new score is higher, it updates the leaderboard.
+     * Concurrent submissions are committed together, and this method returns once the score is persisted.
      *
      * @param nickname Player's unique nickname
      * @param score Calculated score value
-     * @return true if the score was saved/updated successfully, false otherwise
+     * @return the {@link ScoreSubmission} telling whether the score was added or improved and the player's rank
      * @throws IOException if there's an error with file operations
      */
-    public boolean savePlayerScore(String nickname, int score) throws IOException {
-
-        Score scoreEntry = new Score(nickname, score);
-        boolean addScore = scoreRepository.saveScore(scoreEntry);
-
-        int rank = getPlayersRank(nickname);
-        int leaderboardScore = getPlayersScore(rank-1);
-
-        // means we updated our score or it didn't appear
-        return leaderboardScore == score;
-
+    public ScoreSubmission savePlayerScore(String nickname, int score) throws IOException {
+        return scoreRepository.submitScore(new Score(nickname, score));
     }
 
     /**
@@ -100,6 +96,58 @@ public class ScoreService {
         return scoreRepository.getAllScores();
     }
 
+    /**
+     * Retrieves a page of the leaderboard, sorted by score in descending order.
+     *
+     * @param offset 0-based position of the first score to return
+     * @param limit  maximum number of scores to return
+     * @return List of Score objects in the requested range
+     * @throws IllegalArgumentException if the offset is negative or the limit is not between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public List<Score> getLeaderboardPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset " + offset + " is negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return scoreRepository.getScores(offset, limit);
+    }
+
+    /**
+     * Retrieves the players ranked around a given rank: up to {@code k} players above and below it.
+     *
+     * @param rank 1-based rank at the center of the window
+     * @param k    Number of players to include on each side
+     * @return List of Score objects starting at rank {@code max(1, rank - k)}
+     * @throws IllegalArgumentException if k is negative or the window is larger than {@value #MAX_PAGE_SIZE}
+     */
+    public List<Score> getLeaderboardAround(int rank, int k) {
+        if (k < 0 || 2 * k + 1 > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Window size must be between 0 and " + (MAX_PAGE_SIZE - 1) / 2);
+        }
+        int offset = Math.max(0, rank - 1 - k);
+        return scoreRepository.getScores(offset, rank + k - offset);
+    }
+
+    /**
+     * Returns the version of the leaderboard, which changes whenever a score is added or improved.
+     *
+     * @return the leaderboard version
+     */
+    public long getLeaderboardVersion() {
+        return scoreRepository.getVersion();
+    }
+
+    /**
+     * Returns the number of players on the leaderboard.
+     *
+     * @return the leaderboard size
+     */
+    public int getLeaderboardSize() {
+        return scoreRepository.getScoreCount();
+    }
+
     /**
      * Gets the rank (1-based index) of a specific player in the leaderboard.
      *
@@ -109,13 +157,11 @@ public class ScoreService {
      * @throws ResponseStatusException with status 404 (NOT_FOUND) if the nickname is not found
      */
     public int getPlayersRank(String nickname) throws IOException {
-        List<Score> scores = scoreRepository.getAllScores();
-        for (int i = 0; i < scores.size(); i++) {
-            if (scores.get(i).getNickname().equals(nickname)) {
-                return i + 1;
-            }
+        int rank = scoreRepository.getRank(nickname);
+        if (rank < 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nickname " + nickname + " not found");
         }
-        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nickname " + nickname + " not found");
+        return rank;
     }
 
     /**
@@ -132,11 +178,11 @@ public class ScoreService {
             throw new IllegalArgumentException("Index " + index + " is negative");
         }
 
-        List<Score> scores = scoreRepository.getAllScores();
-        if (index >= scores.size()) {
+        Score score = scoreRepository.getScoreAt(index);
+        if (score == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Index " + index + " is out of bounds");
         }
 
-        return scores.get(index).getScore();
+        return score.getScore();
     }
 }
\ No newline at end of file
@@ -1,33 +1,91 @@
 package com.example.backendex3.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import com.example.backendex3.repositories.WordEntry;
 import com.example.backendex3.repositories.WordRepository;
+import com.example.backendex3.repositories.WordRotationRepository;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
  * Service class that provides business logic for handling WordEntry objects.
  * This includes operations such as retrieving, adding, updating, and deleting word entries,
  * as well as retrieving word categories and saving changes to persistent storage.
+ * Words can also be imported and exported in bulk as NDJSON (one JSON object per line) or CSV;
+ * both directions stream the entries instead of holding them all in memory.
  */
 @Service
 public class WordService {
 
+    /** Largest number of words returned by a single page. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Number of imported entries applied, and persisted, together. */
+    public static final int IMPORT_BATCH_SIZE = 10_000;
+
+    /** Largest number of rejected lines described in an import summary. */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    /** Written by some editors at the start of a UTF-8 file; not part of the first line. */
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private static final List<String> CSV_COLUMNS = List.of("id", "category", "word", "hint");
+
+    /**
+     * Running counts and reported errors of an import.
+     */
+    private static final class ImportSummary {
+        private int added;
+        private int rejected;
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+
+        /**
+         * Counts a rejected line, describing it if fewer than {@value #MAX_REPORTED_ERRORS} lines were described so far.
+         */
+        private void reject(int line, String message) {
+            if (rejected++ < MAX_REPORTED_ERRORS) {
+                errors.add(Map.of("line", line, "message", message));
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("added", added);
+            summary.put("rejected", rejected);
+            summary.put("errors", errors);
+            return summary;
+        }
+    }
+
     private final WordRepository wordRepository;
-    private final Random random = new Random();
+    private final WordRotationRepository wordRotationRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructs a new WordService with the given WordRepository.
      *
-     * @param wordRepository the repository used for accessing word data
+     * @param wordRepository         the repository used for accessing word data
+     * @param wordRotationRepository the players' cursors over the shuffled words of each category
+     * @param validator              validator applying the {@link WordEntry} constraints to imported entries
+     * @param objectMapper           mapper reading and writing NDJSON lines
      */
     @Autowired
-    public WordService(WordRepository wordRepository) {
+    public WordService(WordRepository wordRepository, WordRotationRepository wordRotationRepository,
+                       Validator validator, ObjectMapper objectMapper) {
         this.wordRepository = wordRepository;
+        this.wordRotationRepository = wordRotationRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -43,23 +101,58 @@ public class WordService {
             throw new IllegalArgumentException("Invalid category");
         }
 
-        List<WordEntry> categoryList = wordRepository.findByCategory(category.toLowerCase());
-        if (categoryList.isEmpty()) return null;
+        return wordRepository.findRandomByCategory(category.toLowerCase());
+    }
+
+    /**
+     * Retrieves a word entry from a given category for a player, who gets the category's words in a shuffled
+     * order and sees every word once before any repeats. Without a nickname the word is picked uniformly at random.
+     *
+     * @param category the category from which to pick a word
+     * @param nickname the player's nickname, or null for a uniformly random word
+     * @return the player's next WordEntry from the specified category, or null if none found
+     * @throws IllegalArgumentException if category is null or empty
+     */
+    public WordEntry getRandomWordByCategory(String category, String nickname) {
+        if (nickname == null || nickname.isBlank()) {
+            return getRandomWordByCategory(category);
+        }
+        if (category == null || category.isEmpty()) {
+            throw new IllegalArgumentException("Invalid category");
+        }
 
-        return categoryList.get(random.nextInt(categoryList.size()));
+        String normalized = category.toLowerCase();
+        return wordRepository.findInCategory(normalized,
+                size -> wordRotationRepository.next(nickname, normalized, size));
     }
 
     /**
      * Retrieves all word entries sorted lexicographically (case-insensitive).
+     * Words are stored in lowercase and kept sorted by the repository, so no sorting happens here.
      *
      * @return a list of all WordEntry objects sorted by word
      */
     public List<WordEntry> getAllWords() {
-        List<WordEntry> allWords = wordRepository.getWords();
+        return wordRepository.getWords();
+    }
 
-        // Sort the list by the word field in lexicographic order (case-insensitive)
-        allWords.sort(Comparator.comparing(word -> word.getWord().toLowerCase()));
-        return allWords;
+    /**
+     * Retrieves a page of word entries sorted lexicographically (case-insensitive).
+     *
+     * @param prefix optional prefix the words must start with (case-insensitive), or null for all words
+     * @param offset number of matching words to skip
+     * @param limit  maximum number of words to return
+     * @return a list of matching WordEntry objects sorted by word
+     * @throws IllegalArgumentException if the offset is negative or the limit is not between 1 and {@value #MAX_PAGE_SIZE}
+     */
+    public List<WordEntry> getWordsPage(String prefix, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset " + offset + " is negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return wordRepository.getWords(prefix == null ? null : prefix.toLowerCase(), offset, limit);
     }
 
     /**
@@ -100,6 +193,7 @@ public class WordService {
             throw new IllegalArgumentException("Invalid Word entry");
         }
 
+        // Fast path only: the repository checks again while holding its write lock
         if (wordRepository.findByWord(wordEntry.getWord().toLowerCase()) != null) {
             throw new IllegalArgumentException("Word already exists");
         }
@@ -129,6 +223,7 @@ public class WordService {
         String newWord = updatedEntry.getWord().toLowerCase();
         String existingWord = existingEntry.getWord().toLowerCase();
 
+        // Fast path only: the repository checks again while holding its write lock
         if (!newWord.equals(existingWord)) {
             if ( wordRepository.findByWord(newWord) != null ) {
                 throw new IllegalArgumentException("Word already exists");
@@ -155,17 +250,311 @@ public class WordService {
 
     /**
      * Retrieves a list of all unique word categories.
+     * The list is maintained by the repository as words change, so no words are scanned here.
      *
-     * @return {@code List<String>} list of category names
+     * @return {@code List<String>} list of category names, sorted alphabetically
      */
     public List<String> getCategories() {
-        List<WordEntry> allWords = getAllWords();
-        Set<String> categoriesSet = new HashSet<>();
+        return wordRepository.getCategories();
+    }
+
+    /**
+     * Retrieves the number of words in each category.
+     *
+     * @return {@code Map<String, Integer>} from category name to word count, sorted by category name
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        return wordRepository.getCategoryCounts();
+    }
+
+    /**
+     * Returns the version of the word bank, which changes whenever a word is added, updated or deleted.
+     *
+     * @return the word bank version
+     */
+    public long getVersion() {
+        return wordRepository.getVersion();
+    }
+
+    /**
+     * Imports word entries from a stream, one entry per line.
+     * Each entry is checked against the same constraints as a single added word; entries that are invalid,
+     * or whose word or id already exists, are skipped and reported. Valid entries are added in batches of
+     * {@value #IMPORT_BATCH_SIZE}, each persisted with a single write.
+     * <p>
+     * NDJSON lines are JSON objects with {@code category}, {@code word}, {@code hint} and an optional {@code id}.
+     * CSV input may start with a header naming the columns (any of {@code id,category,word,hint});
+     * without one, the columns are {@code category,word,hint}. A quoted CSV field may span lines, its line breaks
+     * read back as {@code \n}; an entry is reported by the line it starts on. Blank lines and a leading
+     * byte order mark are ignored.
+     *
+     * @param body the request body
+     * @param csv  {@code true} for CSV, {@code false} for NDJSON
+     * @return a summary with the number of {@code added} and {@code rejected} entries and the first
+     *         {@value #MAX_REPORTED_ERRORS} {@code errors}, each with its {@code line} number and {@code message}
+     * @throws IOException if the body cannot be read
+     */
+    public Map<String, Object> importWords(InputStream body, boolean csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<WordEntry> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<Integer> batchLines = new ArrayList<>(IMPORT_BATCH_SIZE);
+        Set<String> batchWords = new HashSet<>();
+        Set<String> batchIds = new HashSet<>();
+        ImportSummary summary = new ImportSummary();
+        List<String> columns = List.of("category", "word", "hint");
+        int lineNumber = 0;
+        boolean firstEntry = true;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith(BYTE_ORDER_MARK)) {
+                line = line.substring(BYTE_ORDER_MARK.length());
+            }
+            if (line.isBlank()) continue;
+
+            int entryLine = lineNumber;
+            if (csv) {
+                // A quoted field may hold line breaks, so the entry goes on until the field is closed
+                String next;
+                while (isInsideQuotes(line) && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line + "\n" + next;
+                }
+                if (firstEntry && isCsvHeader(line)) {
+                    firstEntry = false;
+                    columns = parseCsvLine(line).stream().map(column -> column.trim().toLowerCase()).toList();
+                    continue;
+                }
+            }
+            firstEntry = false;
+
+            String error;
+            WordEntry entry = null;
+            try {
+                entry = csv ? parseCsvEntry(line, columns) : objectMapper.readValue(line, WordEntry.class);
+                error = checkImportedEntry(entry, batchWords, batchIds);
+            }
+            catch (JsonProcessingException e) {
+                error = "Malformed JSON: " + e.getOriginalMessage();
+            }
+            catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+
+            if (error != null) {
+                summary.reject(entryLine, error);
+                continue;
+            }
+
+            batch.add(entry);
+            batchLines.add(entryLine);
+            batchWords.add(entry.getWord());
+            batchIds.add(entry.getId());
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                addBatch(batch, batchLines, summary);
+                batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                batchLines.clear();
+                batchWords.clear();
+                batchIds.clear();
+            }
+        }
+
+        addBatch(batch, batchLines, summary);
+        return summary.toMap();
+    }
 
-        for (WordEntry entry: allWords) {
-            categoriesSet.add(entry.getCategory());
+    /**
+     * Adds a batch of checked entries. If a word or id of the batch was added by another request since the
+     * batch was checked, the repository rejects the whole batch; its entries are then added one by one,
+     * so only the clashing ones are rejected.
+     */
+    private void addBatch(List<WordEntry> batch, List<Integer> lines, ImportSummary summary) {
+        try {
+            wordRepository.addWords(batch);
+            summary.added += batch.size();
+            return;
+        }
+        catch (IllegalArgumentException e) {
+            // Fall back to adding the entries one by one
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                wordRepository.addWord(batch.get(i));
+                summary.added++;
+            }
+            catch (IllegalArgumentException e) {
+                summary.reject(lines.get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes every word entry to a stream, sorted by word, one entry per line.
+     * Entries are written as they are read from the repository, without building the full list.
+     *
+     * @param out the stream to write to
+     * @param csv {@code true} for CSV with an {@code id,category,word,hint} header, {@code false} for NDJSON
+     * @throws IOException if the stream cannot be written
+     */
+    public void exportWords(OutputStream out, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        if (csv) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        try {
+            wordRepository.forEachWord(entry -> {
+                try {
+                    if (csv) {
+                        writer.write(toCsvLine(List.of(entry.getId(), entry.getCategory(), entry.getWord(), entry.getHint())));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(entry));
+                    }
+                    writer.write('\n');
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Validates an imported entry and normalizes its word and category to lowercase.
+     *
+     * @param entry      the parsed entry
+     * @param batchWords words of the entries already accepted into the current batch
+     * @param batchIds   ids of the entries already accepted into the current batch
+     * @return a description of the problem, or {@code null} if the entry can be added
+     */
+    private String checkImportedEntry(WordEntry entry, Set<String> batchWords, Set<String> batchIds) {
+        if (entry == null) {
+            return "Invalid Word entry";
+        }
+
+        Set<ConstraintViolation<WordEntry>> violations = validator.validate(entry);
+        if (!violations.isEmpty()) {
+            StringJoiner message = new StringJoiner("; ");
+            violations.forEach(violation -> message.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+            return message.toString();
+        }
+
+        entry.setWord(entry.getWord().toLowerCase());
+        entry.setCategory(entry.getCategory().toLowerCase());
+        if (batchWords.contains(entry.getWord()) || wordRepository.findByWord(entry.getWord()) != null) {
+            return "Word already exists";
+        }
+        if (batchIds.contains(entry.getId()) || wordRepository.findById(entry.getId()) != null) {
+            return "Id already exists";
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the first CSV entry is a header rather than an entry.
+     */
+    private static boolean isCsvHeader(String line) {
+        return !isInsideQuotes(line)
+                && parseCsvLine(line).stream().anyMatch(column -> column.trim().equalsIgnoreCase("word"));
+    }
+
+    /**
+     * Checks whether a CSV line ends inside a quoted field. Quotes come in pairs, including the
+     * doubled quotes escaping a quote inside a field, so an odd count leaves a field open.
+     */
+    private static boolean isInsideQuotes(String line) {
+        return line.chars().filter(c -> c == '"').count() % 2 != 0;
+    }
+
+    /**
+     * Builds a word entry from a CSV line.
+     *
+     * @param line    the CSV line
+     * @param columns the column names, in order
+     * @return the parsed entry, with a new id unless the line has one
+     * @throws IllegalArgumentException if the line has the wrong number of fields
+     */
+    private static WordEntry parseCsvEntry(String line, List<String> columns) {
+        List<String> fields = parseCsvLine(line);
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + fields.size());
+        }
+
+        WordEntry entry = new WordEntry();
+        for (int i = 0; i < columns.size(); i++) {
+            String value = fields.get(i);
+            switch (columns.get(i)) {
+                case "id" -> {
+                    if (!value.isEmpty()) entry.setId(value);
+                }
+                case "category" -> entry.setCategory(value);
+                case "word" -> entry.setWord(value);
+                case "hint" -> entry.setHint(value);
+                default -> throw new IllegalArgumentException("Unknown column: " + columns.get(i));
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Splits a CSV entry into its fields. Fields may be quoted, with {@code ""} standing for a quote
+     * inside a quoted field; a quoted field may span lines, which the caller joins beforehand.
+     *
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Joins fields into a CSV line, quoting the fields that contain commas, quotes or line breaks.
+     */
+    private static String toCsvLine(List<String> fields) {
+        StringJoiner line = new StringJoiner(",");
+        for (String field : fields) {
+            if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+                line.add('"' + field.replace("\"", "\"\"") + '"');
+            } else {
+                line.add(field);
+            }
         }
-        return new ArrayList<>(categoriesSet);
+        return line.toString();
     }
 
 }
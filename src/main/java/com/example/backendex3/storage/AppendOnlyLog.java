@@ -0,0 +1,209 @@
+package com.example.backendex3.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of opaque records.
+ * Each record is framed as {@code [int length][int crc32][payload]}, so a record that was only
+ * partially written before a crash is detected on replay and cut off instead of corrupting the log.
+ * Appends are written straight to the file channel; {@code fsyncEvery} controls how many records
+ * may be written before the log forces them to disk, trading durability for throughput.
+ * This class is not thread-safe; callers must synchronize access.
+ */
+public class AppendOnlyLog implements Closeable {
+
+    private static final int FRAME_HEADER_BYTES = 8;
+
+    /**
+     * Callback receiving the payload of every record found while replaying the log.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(byte[] payload) throws IOException;
+    }
+
+    private final Path path;
+    private final int fsyncEvery;
+    private final FileChannel channel;
+    private int records;            // Records currently in the log
+    private int unsyncedRecords;    // Records written since the last fsync
+
+    /**
+     * Opens (or creates) the log file.
+     *
+     * @param path       location of the log file
+     * @param fsyncEvery number of appended records after which the log is forced to disk;
+     *                   1 forces on every append, 0 leaves flushing entirely to the operating system
+     * @throws IOException if the file cannot be opened
+     */
+    public AppendOnlyLog(Path path, int fsyncEvery) throws IOException {
+        if (fsyncEvery < 0) {
+            throw new IllegalArgumentException("fsyncEvery must not be negative");
+        }
+        this.path = path;
+        this.fsyncEvery = fsyncEvery;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.channel.position(channel.size());
+    }
+
+    /**
+     * Reads every intact record from the start of the log and passes it to the handler.
+     * Reading stops at the first truncated or corrupt record, and the log is cut at that point
+     * so that new records are appended right after the last intact one.
+     *
+     * @param handler callback receiving each record's payload in append order
+     * @return the number of records replayed
+     * @throws IOException if the file cannot be read or the handler fails
+     */
+    public int replay(RecordHandler handler) throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        int count = 0;
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+
+        while (fileSize - position >= FRAME_HEADER_BYTES) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            int crc = header.getInt(4);
+            if (length < 0 || length > fileSize - position - FRAME_HEADER_BYTES) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + FRAME_HEADER_BYTES);
+            if (checksum(payload.array()) != crc) {
+                break;
+            }
+
+            handler.accept(payload.array());
+            position += FRAME_HEADER_BYTES + length;
+            count++;
+        }
+
+        if (position < fileSize) {
+            // Drop the torn tail left behind by an interrupted write
+            channel.truncate(position);
+        }
+        channel.position(position);
+        records = count;
+        return count;
+    }
+
+    /**
+     * Appends a single record.
+     *
+     * @param payload the record's content
+     * @throws IOException if the record cannot be written
+     */
+    public void append(byte[] payload) throws IOException {
+        append(List.of(payload));
+    }
+
+    /**
+     * Appends several records with a single write to the file.
+     *
+     * @param payloads the records' contents, in order
+     * @return the number of bytes written, framing included
+     * @throws IOException if the records cannot be written
+     */
+    public int append(List<byte[]> payloads) throws IOException {
+        int totalBytes = 0;
+        for (byte[] payload : payloads) {
+            totalBytes += FRAME_HEADER_BYTES + payload.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(totalBytes);
+        for (byte[] payload : payloads) {
+            buffer.putInt(payload.length);
+            buffer.putInt(checksum(payload));
+            buffer.put(payload);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        records += payloads.size();
+        unsyncedRecords += payloads.size();
+        if (fsyncEvery > 0 && unsyncedRecords >= fsyncEvery) {
+            sync();
+        }
+        return totalBytes;
+    }
+
+    /**
+     * Forces every record written so far to disk.
+     *
+     * @throws IOException if the file cannot be synced
+     */
+    public void sync() throws IOException {
+        channel.force(false);
+        unsyncedRecords = 0;
+    }
+
+    /**
+     * Discards every record in the log, typically after its content has been compacted into a snapshot.
+     *
+     * @throws IOException if the file cannot be truncated
+     */
+    public void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        records = 0;
+        unsyncedRecords = 0;
+    }
+
+    /**
+     * Returns the number of records currently in the log.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return records;
+    }
+
+    /**
+     * Returns the location of the log file.
+     *
+     * @return the log file path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Syncs any pending records and closes the log file.
+     *
+     * @throws IOException if the file cannot be synced or closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            sync();
+            channel.close();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of log file " + path);
+            }
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.backendex3.storage;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.WordEntry;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Versioned binary file format for the word bank and the leaderboard.
+ * Every file starts with a header of {@code [int magic][int version][int recordCount]}, followed by the records.
+ * From version 2 on, a word bank header also holds {@code [long sequence]}: the number of the last word journal
+ * record included in the file, so the journal can be replayed on top of it.
+ * <ul>
+ *     <li>word entry: 16-byte UUID (two longs), then category, word and hint as strings</li>
+ *     <li>score: nickname as a string, then the score as an int</li>
+ * </ul>
+ * Strings are UTF-8 bytes prefixed by their length as a variable-length integer.
+ * Files are written to a temporary file and moved into place, so readers never see a partially written file.
+ */
+public final class BinaryFormat {
+
+    /** Magic number identifying a word bank file ("HWRD"). */
+    public static final int WORDS_MAGIC = 0x48575244;
+    /** Magic number identifying a leaderboard file ("HSCR"). */
+    public static final int SCORES_MAGIC = 0x48534352;
+    /** Current version of the word bank format. */
+    public static final int WORDS_VERSION = 2;
+    /** Current version of the leaderboard format. */
+    public static final int SCORES_VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BinaryFormat() {}
+
+    /**
+     * Callback receiving the entries of a word bank file one at a time.
+     */
+    @FunctionalInterface
+    public interface WordHandler {
+        void accept(WordEntry entry) throws IOException;
+    }
+
+    /**
+     * Contents of a word bank file: the entries and the journal sequence number they include.
+     */
+    public static final class WordSnapshot {
+        private final List<WordEntry> words;
+        private final long sequence;
+
+        /**
+         * Creates a snapshot.
+         *
+         * @param words    the stored entries
+         * @param sequence the number of the last journal record included in the entries
+         */
+        public WordSnapshot(List<WordEntry> words, long sequence) {
+            this.words = words;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Returns the stored entries.
+         *
+         * @return the stored entries, in file order
+         */
+        public List<WordEntry> getWords() {
+            return words;
+        }
+
+        /**
+         * Returns the journal sequence number the entries include.
+         *
+         * @return the number of the last journal record included in the entries, 0 if none
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * Writes the word bank to a file that includes no journal records.
+     *
+     * @param file  the destination file
+     * @param words the entries to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeWords(Path file, Collection<WordEntry> words) throws IOException {
+        writeWords(file, words, 0);
+    }
+
+    /**
+     * Writes the word bank to a file.
+     *
+     * @param file     the destination file
+     * @param words    the entries to write
+     * @param sequence the number of the last journal record included in the entries
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeWords(Path file, Collection<WordEntry> words, long sequence) throws IOException {
+        writeAtomically(file, out -> {
+            writeHeader(out, WORDS_MAGIC, WORDS_VERSION, words.size());
+            out.writeLong(sequence);
+            for (WordEntry entry : words) {
+                out.writeLong(entry.getIdMostSignificantBits());
+                out.writeLong(entry.getIdLeastSignificantBits());
+                writeString(out, entry.getCategory());
+                writeString(out, entry.getWord());
+                writeString(out, entry.getHint());
+            }
+        });
+    }
+
+    /**
+     * Reads the word bank from a file.
+     *
+     * @param file the file to read
+     * @return the stored entries, in file order
+     * @throws IOException if the file cannot be read or is not a word bank file
+     */
+    public static List<WordEntry> readWords(Path file) throws IOException {
+        return readWordSnapshot(file).getWords();
+    }
+
+    /**
+     * Reads the word bank from a file, along with the journal sequence number it includes.
+     *
+     * @param file the file to read
+     * @return the stored entries and sequence number; files written before version 2 have sequence 0
+     * @throws IOException if the file cannot be read or is not a word bank file
+     */
+    public static WordSnapshot readWordSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            int version = readVersion(in, WORDS_MAGIC, WORDS_VERSION, file);
+            int count = in.readInt();
+            long sequence = version >= 2 ? in.readLong() : 0;
+            List<WordEntry> words = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                words.add(new WordEntry(in.readLong(), in.readLong(), readString(in), readString(in), readString(in)));
+            }
+            return new WordSnapshot(words, sequence);
+        }
+    }
+
+    /**
+     * Reads the word bank from a file one entry at a time, so the entries are never all held in memory.
+     *
+     * @param file    the file to read
+     * @param handler callback receiving each entry, in file order
+     * @throws IOException if the file cannot be read or is not a word bank file, or the handler fails
+     */
+    public static void forEachWord(Path file, WordHandler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            int version = readVersion(in, WORDS_MAGIC, WORDS_VERSION, file);
+            int count = in.readInt();
+            if (version >= 2) {
+                in.readLong();    // Journal sequence, not needed to list the entries
+            }
+            for (int i = 0; i < count; i++) {
+                handler.accept(new WordEntry(in.readLong(), in.readLong(), readString(in), readString(in), readString(in)));
+            }
+        }
+    }
+
+    /**
+     * Writes the leaderboard to a file.
+     *
+     * @param file   the destination file
+     * @param scores the scores to write, in rank order
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeScores(Path file, Collection<Score> scores) throws IOException {
+        writeAtomically(file, out -> {
+            writeHeader(out, SCORES_MAGIC, SCORES_VERSION, scores.size());
+            for (Score score : scores) {
+                writeString(out, score.getNickname());
+                out.writeInt(score.getScore());
+            }
+        });
+    }
+
+    /**
+     * Reads the leaderboard from a file.
+     *
+     * @param file the file to read
+     * @return the stored scores, in file order
+     * @throws IOException if the file cannot be read or is not a leaderboard file
+     */
+    public static List<Score> readScores(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            readVersion(in, SCORES_MAGIC, SCORES_VERSION, file);
+            int count = in.readInt();
+            List<Score> scores = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                scores.add(new Score(readString(in), in.readInt()));
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Writes a string as its UTF-8 bytes prefixed by their length.
+     *
+     * @param out   the stream to write to
+     * @param value the string to write
+     * @throws IOException if the stream cannot be written
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in the stream to read from
+     * @return the string
+     * @throws IOException if the stream cannot be read
+     */
+    public static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a non-negative int using 7 bits per byte, so small values take a single byte.
+     */
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed length prefix");
+    }
+
+    private static void writeHeader(DataOutput out, int magic, int version, int count) throws IOException {
+        out.writeInt(magic);
+        out.writeInt(version);
+        out.writeInt(count);
+    }
+
+    /**
+     * Checks the magic number and reads the format version, which may be any version up to the current one.
+     */
+    private static int readVersion(DataInput in, int magic, int currentVersion, Path file) throws IOException {
+        if (in.readInt() != magic) {
+            throw new IOException("File " + file + " is not in the expected format");
+        }
+        int version = in.readInt();
+        if (version < 1 || version > currentVersion) {
+            throw new IOException("File " + file + " has unsupported format version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Body of a file write, receiving the stream to write to.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void writeAtomically(Path file, ContentWriter writer) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tempFile.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, BUFFER_SIZE))) {
+            writer.write(out);
+            out.flush();
+            fos.getFD().sync();
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.backendex3.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dedicated writer thread persisting records on behalf of a repository.
+ * Callers submit one record per changed key (a player, a word entry) and carry on; the writer hands every
+ * pending record to a {@link Sink} with a single call. A key changed again before its record is written
+ * replaces that record, so only its latest state is written. Records are written in the order of their
+ * latest submission.
+ * <p>
+ * When the writer flushes depends on the {@link DurabilityMode}: in {@code SYNC} and {@code ASYNC} mode as soon as
+ * anything is pending, in {@code BATCHED} mode once the oldest pending record has waited {@code flushInterval}
+ * or {@code flushThreshold} records are pending. In {@code SYNC} mode callers are expected to wait for their record
+ * with {@link #awaitWritten(CompletableFuture)}; concurrent callers then share a single write.
+ * The writer knows nothing of the state its records describe: callers apply their change before submitting it,
+ * and a failed write is reported to the callers waiting for it without undoing anything. An {@link Error} thrown
+ * by the sink stops the writer: every record not written yet fails, and later submissions are refused.
+ */
+public class CoalescingWriter<K> implements Closeable {
+
+    /**
+     * Destination of the records, called on the writer thread only.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void write(List<byte[]> records) throws IOException;
+    }
+
+    /**
+     * The latest record of a key, and the future completed once it is written.
+     */
+    private static final class Pending {
+        private final byte[] record;
+        private final CompletableFuture<Void> written;
+
+        private Pending(byte[] record, CompletableFuture<Void> written) {
+            this.record = record;
+            this.written = written;
+        }
+    }
+
+    private final DurabilityMode mode;
+    private final long flushIntervalNanos;
+    private final int flushThreshold;
+    private final Sink sink;
+    private final Thread thread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+
+    // All guarded by lock
+    private LinkedHashMap<K, Pending> pending = new LinkedHashMap<>();
+    private List<Pending> inFlight = List.of();
+    private long firstPendingNanos;
+    private boolean flushRequested;
+    private boolean running = true;
+    private IOException lastFailure;
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param name            name of the writer thread
+     * @param mode            when records are flushed and whether callers wait for them
+     * @param flushInterval   in {@code BATCHED} mode, longest time a record stays pending, in milliseconds
+     * @param flushThreshold  in {@code BATCHED} mode, number of pending records that triggers a flush
+     * @param sink            destination of the records
+     */
+    public CoalescingWriter(String name, DurabilityMode mode, long flushInterval, int flushThreshold, Sink sink) {
+        if (flushInterval <= 0 || flushThreshold <= 0) {
+            throw new IllegalArgumentException("Flush interval and threshold must be positive");
+        }
+        this.mode = mode;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.flushThreshold = flushThreshold;
+        this.sink = sink;
+        this.thread = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Returns the durability mode of this writer.
+     *
+     * @return the durability mode
+     */
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Submits the latest record of a key, replacing any record of that key still waiting to be written.
+     *
+     * @param key    the changed key
+     * @param record the record describing the key's latest state
+     * @return a future completed once the record, or a newer record of the same key, is written
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Void> submit(K key, byte[] record) {
+        return submit(List.of(key), List.of(record));
+    }
+
+    /**
+     * Submits the latest records of several keys at once, so that they are written by the same flush
+     * unless the flush threshold is reached in between.
+     *
+     * @param keys    the changed keys
+     * @param records the records describing the keys' latest state, in the same order
+     * @return a future completed once every record is written
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Void> submit(List<K> keys, List<byte[]> records) {
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Writer " + thread.getName() + " is closed");
+            }
+            if (pending.isEmpty()) {
+                firstPendingNanos = System.nanoTime();
+            }
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                // Remove first, so the key moves to the end and records stay in submission order
+                Pending replaced = pending.remove(keys.get(i));
+                CompletableFuture<Void> written = replaced != null ? replaced.written : new CompletableFuture<>();
+                pending.put(keys.get(i), new Pending(records.get(i), written));
+                futures.add(written);
+            }
+
+            if (mode != DurabilityMode.BATCHED || pending.size() >= flushThreshold || pending.size() == keys.size()) {
+                workAvailable.signalAll();
+            }
+            return futures.size() == 1 ? futures.get(0) : CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a submitted record is written when running in {@code SYNC} mode; returns right away otherwise.
+     * Must not be called while holding a lock the {@link Sink} needs. Once it returns, the record has been handed
+     * to the sink, and is durable if the sink forces every batch to disk; if it throws, the record may or may not have reached the sink, and the change it describes is not undone.
+     *
+     * @param written the future returned by {@link #submit(Object, byte[])}
+     * @throws IOException if the record could not be written
+     */
+    public void awaitWritten(CompletableFuture<Void> written) throws IOException {
+        if (mode == DurabilityMode.SYNC) {
+            await(List.of(written));
+        }
+    }
+
+    /**
+     * Writes every record submitted so far, whatever the durability mode, and waits until they are written.
+     *
+     * @throws IOException if a record could not be written, or an earlier background write failed
+     */
+    public void flush() throws IOException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        IOException failure;
+        lock.lock();
+        try {
+            inFlight.forEach(record -> futures.add(record.written));
+            pending.values().forEach(record -> futures.add(record.written));
+            flushRequested = true;
+            workAvailable.signalAll();
+            failure = lastFailure;
+            lastFailure = null;
+        }
+        finally {
+            lock.unlock();
+        }
+
+        await(futures);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes every pending record and stops the writer thread.
+     *
+     * @throws IOException if an earlier background write failed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        IOException failure;
+        lock.lock();
+        try {
+            failure = lastFailure;
+            lastFailure = null;
+        }
+        finally {
+            lock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Main loop of the writer thread: waits until a flush is due, then writes every pending record
+     * with one call to the sink, until the writer is closed and nothing is left pending.
+     */
+    private void run() {
+        while (true) {
+            List<Pending> batch;
+            lock.lock();
+            try {
+                try {
+                    while (!flushDue()) {
+                        if (pending.isEmpty() && !running) {
+                            return;
+                        }
+                        waitForWork();
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                inFlight = batch;
+                flushRequested = false;
+            }
+            finally {
+                lock.unlock();
+            }
+
+            List<byte[]> records = new ArrayList<>(batch.size());
+            batch.forEach(record -> records.add(record.record));
+            try {
+                sink.write(records);
+                batch.forEach(record -> record.written.complete(null));
+            }
+            catch (Throwable e) {
+                IOException failure = e instanceof IOException ioException ? ioException : new IOException(e.getMessage(), e);
+                batch.forEach(record -> record.written.completeExceptionally(failure));
+                lock.lock();
+                try {
+                    if (mode != DurabilityMode.SYNC) {
+                        // Nobody waited for these records, so report the failure on the next flush instead
+                        lastFailure = failure;
+                    }
+                    if (e instanceof Error) {
+                        // The thread dies with the error: fail the records left behind and refuse new ones,
+                        // so that no caller waits for a write that will never happen
+                        running = false;
+                        inFlight = List.of();
+                        pending.values().forEach(record -> record.written.completeExceptionally(failure));
+                        pending = new LinkedHashMap<>();
+                    }
+                }
+                finally {
+                    lock.unlock();
+                }
+                if (e instanceof Error error) {
+                    throw error;
+                }
+            }
+
+            lock.lock();
+            try {
+                inFlight = List.of();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the pending records should be written now. Must be called while holding {@code lock}.
+     */
+    private boolean flushDue() {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        return mode != DurabilityMode.BATCHED || flushRequested || !running
+                || pending.size() >= flushThreshold
+                || System.nanoTime() - firstPendingNanos >= flushIntervalNanos;
+    }
+
+    /**
+     * Waits for a submission, or until the oldest pending record is due in {@code BATCHED} mode.
+     * Must be called while holding {@code lock}.
+     */
+    private void waitForWork() throws InterruptedException {
+        if (pending.isEmpty() || mode != DurabilityMode.BATCHED) {
+            workAvailable.await();
+            return;
+        }
+        long remainingNanos = flushIntervalNanos - (System.nanoTime() - firstPendingNanos);
+        workAvailable.awaitNanos(Math.max(remainingNanos, 1));
+    }
+
+    private static void await(List<CompletableFuture<Void>> futures) throws IOException {
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            }
+            catch (CompletionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backendex3.storage;
+
+import java.util.Locale;
+
+/**
+ * When a change is considered saved, as configured by {@code persistence.durability}.
+ */
+public enum DurabilityMode {
+
+    /** Callers wait until their change is written and synced; concurrent changes share a single write.
+     *  A change is applied in memory before it is written, so a failed write is reported to its caller but
+     *  is not rolled back: only acknowledged changes are guaranteed to be durable. */
+    SYNC,
+
+    /** Callers return once the change is applied in memory; the writer persists it right away in the background. */
+    ASYNC,
+
+    /** Callers return once the change is applied in memory; the writer persists pending changes on a schedule,
+     *  or as soon as enough of them are pending. */
+    BATCHED;
+
+    /**
+     * Parses a durability mode name, ignoring case.
+     *
+     * @param value the configured name: {@code sync}, {@code async} or {@code batched}
+     * @return the matching mode
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static DurabilityMode parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown durability mode: " + value);
+        }
+    }
+}
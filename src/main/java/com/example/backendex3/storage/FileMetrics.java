@@ -0,0 +1,71 @@
+package com.example.backendex3.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and write durations and byte counts of one of the files a repository keeps,
+ * published as {@code storage.file.read}/{@code storage.file.write} timers and
+ * {@code storage.file.read.bytes}/{@code storage.file.written.bytes} counters tagged with the file's name.
+ */
+public class FileMetrics {
+
+    private final Timer readTimer;
+    private final Timer writeTimer;
+    private final Counter readBytes;
+    private final Counter writtenBytes;
+
+    /**
+     * Registers the meters of a file.
+     *
+     * @param registry the registry to publish the meters in
+     * @param file     the file's logical name, e.g. {@code words} or {@code scores.log}
+     */
+    public FileMetrics(MeterRegistry registry, String file) {
+        this.readTimer = Timer.builder("storage.file.read")
+                .description("Time spent reading a repository file")
+                .tag("file", file)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.writeTimer = Timer.builder("storage.file.write")
+                .description("Time spent writing a repository file, including fsync")
+                .tag("file", file)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.readBytes = Counter.builder("storage.file.read.bytes")
+                .description("Bytes read from a repository file")
+                .baseUnit("bytes")
+                .tag("file", file)
+                .register(registry);
+        this.writtenBytes = Counter.builder("storage.file.written.bytes")
+                .description("Bytes written to a repository file")
+                .baseUnit("bytes")
+                .tag("file", file)
+                .register(registry);
+    }
+
+    /**
+     * Records a completed read.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the read started
+     * @param bytes      the number of bytes read
+     */
+    public void recordRead(long startNanos, long bytes) {
+        readTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        readBytes.increment(bytes);
+    }
+
+    /**
+     * Records a completed write.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the write started
+     * @param bytes      the number of bytes written
+     */
+    public void recordWrite(long startNanos, long bytes) {
+        writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        writtenBytes.increment(bytes);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.backendex3.storage;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.WordEntry;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Standalone converter migrating files written with Java serialization ({@code words.ser}, {@code scores.ser})
+ * to the {@link BinaryFormat} files read by the repositories.
+ * The kind of each file is detected from its content, and the converted file is written next to it
+ * with a {@code .bin} extension. The original file is left untouched.
+ * <p>
+ * Usage: {@code java -cp <classpath> com.example.backendex3.storage.LegacyFormatConverter words.ser scores.ser}
+ */
+public class LegacyFormatConverter {
+
+    public static void main(String[] args) {
+
+        if (args.length == 0) {
+            System.out.println("Usage: LegacyFormatConverter <file.ser> [<file.ser> ...]");
+            return;
+        }
+
+        for (String arg : args) {
+            Path source = Paths.get(arg);
+            Path target = binaryPathFor(source);
+            try {
+                long start = System.nanoTime();
+                int records = convert(source, target);
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(source + " -> " + target + ": " + records + " records, "
+                        + Files.size(source) + " -> " + Files.size(target) + " bytes in " + elapsedMs + " ms");
+            }
+            catch (IOException e) {
+                System.out.println("Error converting " + source + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Converts a serialized word list or leaderboard to the binary format.
+     *
+     * @param source the serialized file
+     * @param target the binary file to write
+     * @return the number of records converted
+     * @throws IOException if the source cannot be read or does not hold words or scores
+     */
+    public static int convert(Path source, Path target) throws IOException {
+        List<?> records = readLegacy(source);
+
+        if (records.stream().allMatch(WordEntry.class::isInstance)) {
+            BinaryFormat.writeWords(target, castList(records));
+        }
+        else if (records.stream().allMatch(Score.class::isInstance)) {
+            BinaryFormat.writeScores(target, castList(records));
+        }
+        else {
+            throw new IOException("File " + source + " holds neither words nor scores");
+        }
+        return records.size();
+    }
+
+    /**
+     * Reads the word entries of a serialized {@code words.ser} file.
+     *
+     * @param file the serialized file
+     * @return the stored entries
+     * @throws IOException if the file cannot be read or deserialized
+     */
+    public static List<WordEntry> readLegacyWords(Path file) throws IOException {
+        return castList(readLegacy(file));
+    }
+
+    /**
+     * Reads the scores of a serialized {@code scores.ser} file.
+     *
+     * @param file the serialized file
+     * @return the stored scores; empty if the file is empty
+     * @throws IOException if the file cannot be read or deserialized
+     */
+    public static List<Score> readLegacyScores(Path file) throws IOException {
+        return castList(readLegacy(file));
+    }
+
+    /**
+     * Returns the path of the binary file matching a serialized file, e.g. {@code words.bin} for {@code words.ser}.
+     *
+     * @param legacyFile the serialized file
+     * @return the path of the binary file
+     */
+    public static Path binaryPathFor(Path legacyFile) {
+        String name = legacyFile.getFileName().toString();
+        String baseName = name.endsWith(".ser") ? name.substring(0, name.length() - 4) : name;
+        return legacyFile.resolveSibling(baseName + ".bin");
+    }
+
+    /**
+     * Returns the path of the serialized file matching a binary file, e.g. {@code words.ser} for {@code words.bin}.
+     *
+     * @param binaryFile the binary file
+     * @return the path of the serialized file
+     */
+    public static Path legacyPathFor(Path binaryFile) {
+        String name = binaryFile.getFileName().toString();
+        String baseName = name.endsWith(".bin") ? name.substring(0, name.length() - 4) : name;
+        return binaryFile.resolveSibling(baseName + ".ser");
+    }
+
+    private static List<?> readLegacy(Path file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Object content = ois.readObject();
+            if (!(content instanceof List<?> list)) {
+                throw new IOException("File " + file + " does not hold a serialized list");
+            }
+            return list;
+        }
+        catch (EOFException e) {
+            // Empty file
+            return List.of();
+        }
+        catch (ClassNotFoundException e) {
+            throw new IOException("Error deserializing " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> castList(List<?> list) {
+        return (List<T>) list;
+    }
+}
@@ -0,0 +1,595 @@
+package com.example.backendex3.storage;
+
+import com.example.backendex3.repositories.WordEntry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Read-only word bank served from a memory-mapped file.
+ * Only the category directory is kept on the heap; entries stay in the file and are materialized
+ * as {@link WordEntry} objects only when they are returned, so heap use does not grow with the dictionary.
+ * <p>
+ * File layout (all offsets are absolute, tables are 8-byte aligned):
+ * <pre>
+ * header     [int magic][int version][int entryCount][int categoryCount]
+ *            [long categoryTableOffset][long wordTableOffset][long idTableOffset]
+ * directory  categoryCount x [string name][int firstIndex][int count], sorted by name
+ * records    entryCount x [long idMsb][long idLsb][varint categoryIndex][string word][string hint],
+ *            in the order of the source word bank
+ * tables     categoryTable: entryCount x [long recordOffset], grouped by category in directory order
+ *            wordTable:     entryCount x [long recordOffset], sorted by word
+ *            idTable:       entryCount x [long idMsb][long idLsb][long recordOffset], sorted by id
+ * </pre>
+ * Strings use the same length-prefixed UTF-8 encoding as {@link BinaryFormat}. Lookups by word and id
+ * are binary searches over the tables, and a random word of a category is a single table read.
+ * Instances are thread-safe: the mapped buffers are only read with absolute positions.
+ */
+public class MappedWordBank implements Closeable {
+
+    /** Magic number identifying a mapped word bank file ("HWMB"). */
+    public static final int MAGIC = 0x48574D42;
+    /** Current version of the file format. */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 40;
+    private static final int ID_TABLE_ROW_BYTES = 24;
+    private static final int CHUNK_BITS = 30;                  // Map the file in 1 GiB chunks
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+    private static final int SORT_RUN_SIZE = 1 << 18;          // Keys sorted in memory at once while writing
+
+    /**
+     * A category of the directory: its name and where its entries start in the category table.
+     */
+    private static final class Category {
+        private final String name;
+        private final int firstIndex;
+        private final int count;
+
+        private Category(String name, int firstIndex, int count) {
+            this.name = name;
+            this.firstIndex = firstIndex;
+            this.count = count;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final int entryCount;
+    private final long categoryTableOffset;
+    private final long wordTableOffset;
+    private final long idTableOffset;
+    private final Category[] categoriesByIndex;
+    private final Map<String, Category> categoriesByName = new HashMap<>();
+    private final List<String> categoryNames;
+    private final Map<String, Integer> categoryCounts;
+
+    /**
+     * Maps an existing word bank file.
+     *
+     * @param file the mapped word bank file, as written by {@link #write(Path, Collection)}
+     * @throws IOException if the file cannot be mapped or is not a mapped word bank file
+     */
+    public MappedWordBank(Path file) throws IOException {
+        this.channel = FileChannel.open(file);
+        long size = channel.size();
+        this.chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+        for (int i = 0; i < chunks.length; i++) {
+            long start = (long) i << CHUNK_BITS;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_MASK + 1, size - start));
+        }
+
+        if (size < HEADER_BYTES || getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("File " + file + " is not a mapped word bank");
+        }
+        if (getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("File " + file + " has unsupported format version " + getInt(4));
+        }
+
+        this.entryCount = getInt(8);
+        int categoryCount = getInt(12);
+        this.categoryTableOffset = getLong(16);
+        this.wordTableOffset = getLong(24);
+        this.idTableOffset = getLong(32);
+
+        this.categoriesByIndex = new Category[categoryCount];
+        Map<String, Integer> counts = new TreeMap<>();
+        long[] position = {HEADER_BYTES};
+        for (int i = 0; i < categoryCount; i++) {
+            String name = readString(position);
+            Category category = new Category(name, getInt(position[0]), getInt(position[0] + 4));
+            position[0] += 8;
+            categoriesByIndex[i] = category;
+            categoriesByName.put(name, category);
+            counts.put(name, category.count);
+        }
+        this.categoryCounts = Collections.unmodifiableMap(counts);
+        this.categoryNames = List.copyOf(counts.keySet());
+    }
+
+    /**
+     * Returns the number of entries in the word bank.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the categories of the word bank.
+     *
+     * @return an unmodifiable list of category names, sorted alphabetically
+     */
+    public List<String> getCategories() {
+        return categoryNames;
+    }
+
+    /**
+     * Returns the number of entries in each category.
+     *
+     * @return an unmodifiable map from category name to word count, sorted by category name
+     */
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    /**
+     * Picks a random entry of a category.
+     *
+     * @param category the category to pick from
+     * @return a random entry, or {@code null} if the category does not exist
+     */
+    public WordEntry findRandomByCategory(String category) {
+        Category found = categoriesByName.get(category);
+        if (found == null) {
+            return null;
+        }
+        int index = found.firstIndex + ThreadLocalRandom.current().nextInt(found.count);
+        return readEntry(getLong(categoryTableOffset + 8L * index));
+    }
+
+    /**
+     * Picks an entry of a category by its position in the category.
+     *
+     * @param category the category to pick from
+     * @param pick     chooses an index from the number of entries in the category (at least 1)
+     * @return the entry at the chosen index, or {@code null} if the category does not exist
+     */
+    public WordEntry findInCategory(String category, IntUnaryOperator pick) {
+        Category found = categoriesByName.get(category);
+        if (found == null) {
+            return null;
+        }
+        int index = found.firstIndex + pick.applyAsInt(found.count);
+        return readEntry(getLong(categoryTableOffset + 8L * index));
+    }
+
+    /**
+     * Returns every entry of a category.
+     *
+     * @param category the category to list
+     * @return the entries of the category; empty if the category does not exist
+     */
+    public List<WordEntry> findByCategory(String category) {
+        Category found = categoriesByName.get(category);
+        if (found == null) {
+            return new ArrayList<>();
+        }
+
+        List<WordEntry> entries = new ArrayList<>(found.count);
+        for (int i = found.firstIndex; i < found.firstIndex + found.count; i++) {
+            entries.add(readEntry(getLong(categoryTableOffset + 8L * i)));
+        }
+        return entries;
+    }
+
+    /**
+     * Finds an entry by its word with a binary search over the word table.
+     *
+     * @param word the word to look for
+     * @return the matching entry, or {@code null} if not found
+     */
+    public WordEntry findByWord(String word) {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(key);
+        if (index < entryCount && compareWord(wordRecordOffset(index), key) == 0) {
+            return readEntry(wordRecordOffset(index));
+        }
+        return null;
+    }
+
+    /**
+     * Finds an entry by its id with a binary search over the id table.
+     *
+     * @param id the id to look for
+     * @return the matching entry, or {@code null} if not found
+     * @throws IllegalArgumentException if the id is not a UUID
+     */
+    public WordEntry findById(String id) {
+        UUID uuid = WordEntry.toUuid(id);
+
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long row = idTableOffset + (long) ID_TABLE_ROW_BYTES * middle;
+            int comparison = compareIds(getLong(row), getLong(row + 8),
+                    uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return readEntry(getLong(row + 16));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a page of entries sorted by word, optionally restricted to words starting with a prefix.
+     *
+     * @param prefix the prefix the words must start with, or {@code null} for all words
+     * @param offset the number of matching entries to skip
+     * @param limit  the maximum number of entries to return
+     * @return the matching entries in lexicographic order
+     */
+    public List<WordEntry> getWords(String prefix, int offset, int limit) {
+        byte[] key = prefix == null ? new byte[0] : prefix.getBytes(StandardCharsets.UTF_8);
+        List<WordEntry> page = new ArrayList<>(Math.min(limit, 64));
+
+        for (long index = (long) lowerBound(key) + offset; index < entryCount && page.size() < limit; index++) {
+            long recordOffset = wordRecordOffset((int) index);
+            if (!wordStartsWith(recordOffset, key)) {
+                break;
+            }
+            page.add(readEntry(recordOffset));
+        }
+        return page;
+    }
+
+    /**
+     * Closes the underlying file channel. The mapping itself is released once this instance is garbage collected.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes a mapped word bank file for the given entries.
+     * The file is written to a temporary file and moved into place.
+     *
+     * @param file    the destination file
+     * @param entries the entries to store
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Collection<WordEntry> entries) throws IOException {
+        write(file, handler -> {
+            for (WordEntry entry : entries) {
+                handler.accept(entry);
+            }
+        });
+    }
+
+    /**
+     * Writes a mapped word bank file for the entries of a word bank file in the {@link BinaryFormat}.
+     * The word bank file is streamed twice and its entries are never all held in memory.
+     * The file is written to a temporary file and moved into place.
+     *
+     * @param file     the destination file
+     * @param wordFile the word bank file to read the entries from
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void write(Path file, Path wordFile) throws IOException {
+        write(file, handler -> BinaryFormat.forEachWord(wordFile, handler));
+    }
+
+    /**
+     * Source of the entries to write, which is read once to count the entries of each category
+     * and once more to write them.
+     */
+    @FunctionalInterface
+    private interface EntrySource {
+        void forEach(BinaryFormat.WordHandler handler) throws IOException;
+    }
+
+    private static void write(Path file, EntrySource source) throws IOException {
+        Map<String, Integer> counts = new TreeMap<>();
+        source.forEach(entry -> counts.merge(entry.getCategory(), 1, Integer::sum));
+
+        // The category table lists each category's records together, in directory order
+        Map<String, Integer> categoryIndexes = new HashMap<>();
+        int[] nextInCategory = new int[counts.size()];
+        int entryCount = 0;
+        for (Map.Entry<String, Integer> category : counts.entrySet()) {
+            nextInCategory[categoryIndexes.size()] = entryCount;
+            categoryIndexes.put(category.getKey(), categoryIndexes.size());
+            entryCount += category.getValue();
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        long[] categoryOffsets = new long[entryCount];
+        long categoryTable;
+        long wordTable;
+        long idTable;
+
+        try (OffsetSorter byWord = new OffsetSorter(directory, file.getFileName() + ".words.", SORT_RUN_SIZE);
+             OffsetSorter byId = new OffsetSorter(directory, file.getFileName() + ".ids.", SORT_RUN_SIZE);
+             CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16));
+             DataOutputStream out = new DataOutputStream(counter)) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entryCount);
+            out.writeInt(counts.size());
+            out.write(new byte[24]);    // Table offsets, filled in once known
+
+            int firstIndex = 0;
+            for (Map.Entry<String, Integer> category : counts.entrySet()) {
+                BinaryFormat.writeString(out, category.getKey());
+                out.writeInt(firstIndex);
+                out.writeInt(category.getValue());
+                firstIndex += category.getValue();
+            }
+
+            int[] written = {0};
+            source.forEach(entry -> {
+                Integer categoryIndex = categoryIndexes.get(entry.getCategory());
+                if (categoryIndex == null || written[0]++ == categoryOffsets.length) {
+                    throw new IOException("Word bank changed while the mapped file was being written");
+                }
+                long recordOffset = counter.count;
+                categoryOffsets[nextInCategory[categoryIndex]++] = recordOffset;
+                out.writeLong(entry.getIdMostSignificantBits());
+                out.writeLong(entry.getIdLeastSignificantBits());
+                writeVarInt(out, categoryIndex);
+                BinaryFormat.writeString(out, entry.getWord());
+                BinaryFormat.writeString(out, entry.getHint());
+                byWord.add(entry.getWord().getBytes(StandardCharsets.UTF_8), recordOffset);
+                byId.add(idKey(entry.getIdMostSignificantBits(), entry.getIdLeastSignificantBits()), recordOffset);
+            });
+            if (written[0] != categoryOffsets.length) {
+                throw new IOException("Word bank changed while the mapped file was being written");
+            }
+
+            out.write(new byte[(int) ((8 - counter.count % 8) % 8)]);
+
+            categoryTable = counter.count;
+            for (long recordOffset : categoryOffsets) {
+                out.writeLong(recordOffset);
+            }
+
+            // Sorted by UTF-8 bytes, the unsigned byte order used by lookups
+            wordTable = counter.count;
+            byWord.forEachSorted((word, recordOffset) -> out.writeLong(recordOffset));
+
+            idTable = counter.count;
+            byId.forEachSorted((id, recordOffset) -> {
+                out.writeLong(idPart(id, 0));
+                out.writeLong(idPart(id, 8));
+                out.writeLong(recordOffset);
+            });
+        }
+
+        try (RandomAccessFile header = new RandomAccessFile(tempFile.toFile(), "rw")) {
+            header.seek(16);
+            header.writeLong(categoryTable);
+            header.writeLong(wordTable);
+            header.writeLong(idTable);
+            header.getFD().sync();
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Builds a mapped word bank file from a word bank file in the {@link BinaryFormat}.
+     * <p>
+     * Usage: {@code java -cp <classpath> com.example.backendex3.storage.MappedWordBank words.bin words.map}
+     */
+    public static void main(String[] args) {
+
+        if (args.length != 2) {
+            System.out.println("Usage: MappedWordBank <words.bin> <words.map>");
+            return;
+        }
+
+        try {
+            write(Paths.get(args[1]), Paths.get(args[0]));
+            try (MappedWordBank bank = new MappedWordBank(Paths.get(args[1]))) {
+                System.out.println(args[1] + " created successfully with " + bank.size() + " words.");
+            }
+        }
+        catch (IOException e) {
+            System.out.println("Error writing file: " + e.getMessage());
+        }
+    }
+
+    private WordEntry readEntry(long offset) {
+        long[] position = {offset + 16};
+        String category = categoriesByIndex[readVarInt(position)].name;
+        String word = readString(position);
+        String hint = readString(position);
+        return new WordEntry(getLong(offset), getLong(offset + 8), category, word, hint);
+    }
+
+    private long wordRecordOffset(int index) {
+        return getLong(wordTableOffset + 8L * index);
+    }
+
+    /**
+     * Returns the position of the first word in the word table that is not smaller than the key.
+     */
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareWord(wordRecordOffset(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares the word of a record with a key, byte by byte as unsigned values.
+     */
+    private int compareWord(long recordOffset, byte[] key) {
+        long[] position = {recordOffset + 16};
+        readVarInt(position);
+        int length = readVarInt(position);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Integer.compare(getByte(position[0] + i) & 0xFF, key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean wordStartsWith(long recordOffset, byte[] prefix) {
+        long[] position = {recordOffset + 16};
+        readVarInt(position);
+        int length = readVarInt(position);
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (getByte(position[0] + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compareIds(long msbA, long lsbA, long msbB, long lsbB) {
+        int comparison = Long.compare(msbA, msbB);
+        return comparison != 0 ? comparison : Long.compare(lsbA, lsbB);
+    }
+
+    private String readString(long[] position) {
+        byte[] bytes = new byte[readVarInt(position)];
+        for (int copied = 0; copied < bytes.length; ) {
+            long at = position[0] + copied;
+            MappedByteBuffer chunk = chunks[(int) (at >>> CHUNK_BITS)];
+            int offsetInChunk = (int) (at & CHUNK_MASK);
+            int length = Math.min(bytes.length - copied, chunk.limit() - offsetInChunk);
+            chunk.get(offsetInChunk, bytes, copied, length);
+            copied += length;
+        }
+        position[0] += bytes.length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt(long[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = getByte(position[0]++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private byte getByte(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & CHUNK_MASK));
+    }
+
+    private int getInt(long position) {
+        MappedByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int offsetInChunk = (int) (position & CHUNK_MASK);
+        if (offsetInChunk + 4 <= chunk.limit()) {
+            return chunk.getInt(offsetInChunk);
+        }
+        return (int) getAcrossChunks(position, 4);
+    }
+
+    private long getLong(long position) {
+        MappedByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int offsetInChunk = (int) (position & CHUNK_MASK);
+        if (offsetInChunk + 8 <= chunk.limit()) {
+            return chunk.getLong(offsetInChunk);
+        }
+        return getAcrossChunks(position, 8);
+    }
+
+    /**
+     * Reads a big-endian value of the given width that straddles two chunks.
+     */
+    private long getAcrossChunks(long position, int width) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = (value << 8) | (getByte(position + i) & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Encodes an id as a sort key whose unsigned byte order matches {@link #compareIds}.
+     */
+    private static byte[] idKey(long mostSignificantBits, long leastSignificantBits) {
+        return ByteBuffer.allocate(16)
+                .putLong(mostSignificantBits ^ Long.MIN_VALUE)
+                .putLong(leastSignificantBits ^ Long.MIN_VALUE)
+                .array();
+    }
+
+    /**
+     * Decodes one half of an id from a key built by {@link #idKey}.
+     */
+    private static long idPart(byte[] key, int offset) {
+        return ByteBuffer.wrap(key, offset, 8).getLong() ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Output stream keeping track of the number of bytes written through it, which may exceed 2 GiB.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backendex3.storage;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External sort of file offsets by a key, used to build the sorted tables of a {@link MappedWordBank}.
+ * At most {@code runSize} keys are held in memory: each full buffer is sorted and spilled to a temporary
+ * run file next to the file being built, and the runs are merged when the sorted offsets are read back.
+ * Keys are compared as unsigned bytes. Run files are deleted when the sorter is closed.
+ */
+final class OffsetSorter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Comparator<KeyedOffset> BY_KEY = (a, b) -> Arrays.compareUnsigned(a.key(), b.key());
+
+    /**
+     * Callback receiving the offsets in key order, along with their keys.
+     */
+    @FunctionalInterface
+    interface SortedOffsetHandler {
+        void accept(byte[] key, long offset) throws IOException;
+    }
+
+    private record KeyedOffset(byte[] key, long offset) {}
+
+    /**
+     * A run file being merged, positioned on its smallest key not yet handed out.
+     */
+    private static final class RunReader implements Closeable {
+        private final DataInputStream in;
+        private int remaining;
+        private KeyedOffset current;
+
+        private RunReader(Path run, int count) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+            this.remaining = count;
+        }
+
+        /**
+         * Moves to the next entry of the run.
+         *
+         * @return {@code false} if the run is exhausted
+         */
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            byte[] key = new byte[in.readInt()];
+            in.readFully(key);
+            current = new KeyedOffset(key, in.readLong());
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final KeyedOffset[] buffer;
+    private int buffered;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Integer> runCounts = new ArrayList<>();
+
+    /**
+     * Creates a sorter.
+     *
+     * @param directory the directory the run files are created in
+     * @param prefix    the prefix of the run file names
+     * @param runSize   the number of keys held in memory before they are spilled to a run file
+     */
+    OffsetSorter(Path directory, String prefix, int runSize) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.buffer = new KeyedOffset[runSize];
+    }
+
+    /**
+     * Adds an offset with its key.
+     *
+     * @param key    the key the offset is sorted by
+     * @param offset the offset
+     * @throws IOException if a run file cannot be written
+     */
+    void add(byte[] key, long offset) throws IOException {
+        if (buffered == buffer.length) {
+            spill();
+        }
+        buffer[buffered++] = new KeyedOffset(key, offset);
+    }
+
+    /**
+     * Hands every added offset to the handler in key order.
+     *
+     * @param handler callback receiving each offset and its key
+     * @throws IOException if a run file cannot be read or the handler fails
+     */
+    void forEachSorted(SortedOffsetHandler handler) throws IOException {
+        if (runs.isEmpty()) {
+            Arrays.sort(buffer, 0, buffered, BY_KEY);
+            for (int i = 0; i < buffered; i++) {
+                handler.accept(buffer[i].key(), buffer[i].offset());
+            }
+            return;
+        }
+
+        if (buffered > 0) {
+            spill();
+        }
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(runs.size(), (a, b) -> BY_KEY.compare(a.current, b.current));
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i), runCounts.get(i));
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunReader smallest = heads.poll();
+                handler.accept(smallest.current.key(), smallest.current.offset());
+                if (smallest.advance()) {
+                    heads.add(smallest);
+                }
+            }
+        }
+        finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the run files.
+     *
+     * @throws IOException if a run file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * Sorts the buffered keys and writes them to a new run file as {@code [int keyLength][key][long offset]}.
+     */
+    private void spill() throws IOException {
+        Arrays.sort(buffer, 0, buffered, BY_KEY);
+        Path run = Files.createTempFile(directory, prefix, ".run");
+        runs.add(run);
+        runCounts.add(buffered);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+            for (int i = 0; i < buffered; i++) {
+                out.writeInt(buffer[i].key().length);
+                out.write(buffer[i].key());
+                out.writeLong(buffer[i].offset());
+            }
+        }
+        Arrays.fill(buffer, 0, buffered, null);
+        buffered = 0;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.backendex3.wordInit;
 import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.storage.BinaryFormat;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class WordInit implements Serializable {
@@ -31,9 +33,9 @@ public class WordInit implements Serializable {
         words.add(new WordEntry("foods", "pizza", "Popular Italian dish with cheese"));
         words.add(new WordEntry("foods", "sushi", "Japanese dish with rice and fish"));
 
-        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream("words.ser"))) {
-            out.writeObject(words);
-            System.out.println("words.ser created successfully with " + words.size() + " words.");
+        try {
+            BinaryFormat.writeWords(Paths.get("words.bin"), words);
+            System.out.println("words.bin created successfully with " + words.size() + " words.");
         }
         catch (IOException e) {
             System.out.println("Error writing file: " + e.getMessage());
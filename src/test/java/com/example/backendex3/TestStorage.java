@@ -0,0 +1,28 @@
+package com.example.backendex3;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.nio.file.Path;
+
+/**
+ * Points every storage file of the application at a directory of the test, so that tests starting the
+ * application neither read nor change the files of the working directory.
+ */
+public final class TestStorage {
+
+    private TestStorage() {}
+
+    /**
+     * Registers the storage file properties.
+     *
+     * @param registry  the registry of the test's application context
+     * @param directory the directory holding the files, empty so that the application starts without words or scores
+     */
+    public static void register(DynamicPropertyRegistry registry, Path directory) {
+        registry.add("words.file", () -> directory.resolve("words.bin").toString());
+        registry.add("words.mapped-file", () -> directory.resolve("words.map").toString());
+        registry.add("words.journal.file", () -> directory.resolve("words.journal").toString());
+        registry.add("scores.file", () -> directory.resolve("scores.bin").toString());
+        registry.add("scores.log.file", () -> directory.resolve("scores.log").toString());
+    }
+}
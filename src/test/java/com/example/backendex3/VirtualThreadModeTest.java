@@ -0,0 +1,78 @@
+package com.example.backendex3;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadModeTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        TestStorage.register(registry, directory);
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ServletWebServerApplicationContext context;
+
+    @Test
+    void tomcatRunsRequestsOnVirtualThreads() {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        assertInstanceOf(VirtualThreadExecutor.class, connector.getProtocolHandler().getExecutor());
+    }
+
+    @Test
+    void servesConcurrentReadsAndWrites() throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                HttpRequest request = i % 4 == 0
+                        ? HttpRequest.newBuilder(uri("/wordEntry/add"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(
+                                        "{\"category\":\"load\",\"word\":\"word" + (char) ('a' + i / 4) + "\",\"hint\":\"hint\"}"))
+                                .build()
+                        : HttpRequest.newBuilder(uri(i % 2 == 0 ? "/api/scores?top=10" : "/wordEntry/getCategories")).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get(30, TimeUnit.SECONDS).statusCode());
+            }
+
+            HttpResponse<String> counts = client.send(HttpRequest.newBuilder(uri("/wordEntry/getCategoryCounts")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals("{\"load\":25}", counts.body());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.TestStorage;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GameControllerTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        TestStorage.register(registry, directory);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WordRepository wordRepository;
+
+    @Autowired
+    ScoreRepository scoreRepository;
+
+    /**
+     * Adds the only word of the {@code games} category, once for the whole class.
+     */
+    @BeforeEach
+    void addWord() {
+        if (wordRepository.findByWord("tiger") == null) {
+            wordRepository.addWord(new WordEntry("games", "tiger", "Big striped cat"));
+        }
+    }
+
+    @Test
+    void wonGameIsScoredAndClosed() throws Exception {
+        String id = startGame("alice", "games")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category").value("games"))
+                .andExpect(jsonPath("$.maskedWord").value("_____"))
+                .andExpect(jsonPath("$.finished").value(false))
+                .andExpect(jsonPath("$.score").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        id = JsonPath.read(id, "$.id");
+
+        guess(id, "z")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.attempts").value(1))
+                .andExpect(jsonPath("$.finished").value(false));
+        guess(id, "T")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maskedWord").value("t____"));
+        mockMvc.perform(post("/games/{id}/hint", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hint").value("Big striped cat"));
+
+        guess(id, "tiger")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maskedWord").value("tiger"))
+                .andExpect(jsonPath("$.usedHint").value(true))
+                .andExpect(jsonPath("$.finished").value(true))
+                .andExpect(jsonPath("$.timeTakenMS").isNumber())
+                .andExpect(jsonPath("$.score").isNumber())
+                .andExpect(jsonPath("$.rank").value(1))
+                .andExpect(jsonPath("$.status").value(true));
+        assertEquals(1, scoreRepository.getRank("alice"));
+
+        // The won game is gone, so it cannot be scored twice
+        guess(id, "tiger").andExpect(status().isNotFound());
+        mockMvc.perform(post("/games/{id}/hint", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void badGamesAndGuessesAreRejected() throws Exception {
+        startGame("bob", "nothing").andExpect(status().isNotFound());
+        guess(UUID.randomUUID().toString(), "a").andExpect(status().isNotFound());
+        guess("not-a-game", "a").andExpect(status().isNotFound());
+
+        String id = JsonPath.read(startGame("bob", "games").andReturn().getResponse().getContentAsString(), "$.id");
+        guess(id, "4").andExpect(status().isBadRequest());
+        guess(id, "").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void clientScoresAreRefusedByDefault() throws Exception {
+        mockMvc.perform(post("/api/scores").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nickname\":\"mallory\",\"timeTakenMS\":1000,\"attempts\":0,\"usedHint\":false,\"wordLength\":5}"))
+                .andExpect(status().isForbidden());
+        assertEquals(-1, scoreRepository.getRank("mallory"));
+    }
+
+    private ResultActions startGame(String nickname, String category) throws Exception {
+        return mockMvc.perform(post("/games").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nickname\":\"" + nickname + "\",\"category\":\"" + category + "\"}"));
+    }
+
+    private ResultActions guess(String id, String letters) throws Exception {
+        return mockMvc.perform(post("/games/{id}/guess", id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"guess\":\"" + letters + "\"}"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.TestStorage;
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "leaderboard.stream.tick-ms=200")
+class LeaderboardStreamTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        TestStorage.register(registry, directory);
+    }
+
+    /**
+     * An event of the stream: its id, name and JSON data.
+     */
+    private record Event(long id, String name, JsonNode data) {}
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ScoreRepository scoreRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private HttpClient client;
+    private Thread reader;
+
+    @BeforeEach
+    void subscribe() throws Exception {
+        client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/scores/stream")).build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        reader = Thread.ofPlatform().daemon().start(() -> read(response.body()));
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        reader.interrupt();
+        client.shutdownNow();
+    }
+
+    @Test
+    void firstEventIsTheCurrentVersion() throws Exception {
+        Event event = next();
+        assertEquals("version", event.name());
+        assertEquals(scoreRepository.getVersion(), event.id());
+        assertEquals(event.id(), event.data().get("version").asLong());
+    }
+
+    @Test
+    void changesOfATickArriveAsOneEventFollowingTheLastOne() throws Exception {
+        long version = next().id();
+        scoreRepository.submitScore(new Score("carol", 5));
+        scoreRepository.submitScore(new Score("dave", 3));
+
+        long seen = version;
+        while (seen < version + 2) {
+            Event event = next();
+            if (event.name() == null) continue;     // Heartbeat
+            assertEquals("scores", event.name());
+            assertEquals(seen, event.data().get("previousVersion").asLong());
+            assertTrue(event.id() > seen);
+            seen = event.id();
+        }
+        assertEquals(version + 2, seen);
+    }
+
+    @Test
+    void playerChangedTwiceInATickKeepsThePlaceOfItsFirstChange() throws Exception {
+        long version = next().id();
+        // The changes normally share a tick; try again in the rare case a tick falls between them
+        for (int attempt = 0; attempt < 5; attempt++) {
+            String first = "first" + (char) ('a' + attempt);
+            String second = "second" + (char) ('a' + attempt);
+            scoreRepository.submitScore(new Score(first, 1000 + 10 * attempt));
+            scoreRepository.submitScore(new Score(second, 1001 + 10 * attempt));
+            scoreRepository.submitScore(new Score(first, 1002 + 10 * attempt));
+
+            Event event = nextScores();
+            while (event.id() < version + 3) {
+                event = nextScores();
+            }
+            boolean oneTick = event.data().get("previousVersion").asLong() == version;
+            version += 3;
+            if (!oneTick) continue;
+
+            assertEquals(version, event.id());
+            JsonNode deltas = event.data().get("deltas");
+            assertEquals(2, deltas.size());
+            assertEquals(first, deltas.get(0).get("nickname").asText());
+            assertEquals(1002 + 10 * attempt, deltas.get(0).get("score").asInt());
+            assertEquals(-1, deltas.get(0).get("oldRank").asInt());
+            assertEquals(1, deltas.get(0).get("newRank").asInt());
+            assertEquals(second, deltas.get(1).get("nickname").asText());
+            return;
+        }
+        fail("Three changes never shared a tick");
+    }
+
+    private Event next() throws InterruptedException {
+        Event event = events.poll(10, TimeUnit.SECONDS);
+        assertNotNull(event, "No event received");
+        return event;
+    }
+
+    private Event nextScores() throws InterruptedException {
+        Event event;
+        do {
+            event = next();
+        } while (!"scores".equals(event.name()));
+        return event;
+    }
+
+    /**
+     * Parses the stream into events until it ends. Comments, such as heartbeats, become events without a name.
+     */
+    private void read(Stream<String> lines) {
+        long[] id = {-1};
+        String[] name = {null};
+        StringBuilder data = new StringBuilder();
+        boolean[] comment = {false};
+        try {
+            lines.forEach(line -> {
+                if (line.isEmpty()) {
+                    if (data.length() > 0 || comment[0]) {
+                        events.add(new Event(id[0], name[0], parse(data.toString())));
+                    }
+                    id[0] = -1;
+                    name[0] = null;
+                    data.setLength(0);
+                    comment[0] = false;
+                } else if (line.startsWith(":")) {
+                    comment[0] = true;
+                } else if (line.startsWith("id:")) {
+                    id[0] = Long.parseLong(line.substring(3).trim());
+                } else if (line.startsWith("event:")) {
+                    name[0] = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring(5));
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            // The client was shut down
+        }
+    }
+
+    private JsonNode parse(String data) {
+        try {
+            return data.isEmpty() ? null : objectMapper.readTree(data);
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.TestStorage;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.storage.BinaryFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "words.storage=mapped")
+@AutoConfigureMockMvc
+class MappedWordBankControllerTest {
+
+    private static final WordEntry TIGER = new WordEntry("animals", "tiger", "Big striped cat");
+
+    @TempDir
+    static Path directory;
+
+    /**
+     * Writes the word bank the application maps at startup.
+     */
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        try {
+            BinaryFormat.writeWords(directory.resolve("words.bin"), List.of(TIGER,
+                    new WordEntry("animals", "eagle", "Flying predator"),
+                    new WordEntry("colors", "blue", "Color of the sky"),
+                    new WordEntry("colors", "green", "Color of grass")));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TestStorage.register(registry, directory);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void servesLookupsFromTheMappedFile() throws Exception {
+        mockMvc.perform(get("/wordEntry"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].word", contains("blue", "eagle", "green", "tiger")));
+        mockMvc.perform(get("/wordEntry").param("prefix", "g"))
+                .andExpect(jsonPath("$[*].word", contains("green")));
+        mockMvc.perform(get("/wordEntry").param("offset", "1").param("limit", "2"))
+                .andExpect(jsonPath("$[*].word", contains("eagle", "green")));
+        mockMvc.perform(get("/wordEntry/word/{word}/exists", "tiger"))
+                .andExpect(jsonPath("$.exists").value(true));
+        mockMvc.perform(get("/wordEntry/word/{word}/exists", "lion"))
+                .andExpect(jsonPath("$.exists").value(false));
+        mockMvc.perform(get("/wordEntry/getCategories"))
+                .andExpect(jsonPath("$", contains("animals", "colors")));
+        mockMvc.perform(get("/wordEntry/getCategoryCounts"))
+                .andExpect(jsonPath("$.animals").value(2))
+                .andExpect(jsonPath("$.colors").value(2));
+        mockMvc.perform(get("/wordEntry/getRandomWord").param("category", "colors"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.word", either(equalTo("blue")).or(equalTo("green"))));
+        mockMvc.perform(get("/wordEntry/getRandomWord").param("category", "shapes"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsChangesAsNotAllowed() throws Exception {
+        mockMvc.perform(post("/wordEntry/add").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"animals\",\"word\":\"lion\",\"hint\":\"King of the jungle\"}"))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(put("/wordEntry/update/{id}", TIGER.getId()).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"category\":\"cats\",\"word\":\"tiger\",\"hint\":\"Striped\"}"))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(delete("/wordEntry/delete/{id}", TIGER.getId()))
+                .andExpect(status().isMethodNotAllowed());
+        mockMvc.perform(post("/wordEntry/bulk").contentType("text/csv").content("animals,lion,King of the jungle\n"))
+                .andExpect(status().isMethodNotAllowed());
+
+        mockMvc.perform(get("/wordEntry/word/{word}/exists", "lion"))
+                .andExpect(jsonPath("$.exists").value(false));
+        mockMvc.perform(get("/wordEntry/getCategoryCounts"))
+                .andExpect(jsonPath("$.animals").value(2));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.TestStorage;
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.ScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ScoreControllerTest {
+
+    private static final int PLAYERS = 20;
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        TestStorage.register(registry, directory);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ScoreRepository scoreRepository;
+
+    /**
+     * Fills the leaderboard with players {@code pa} (rank 20) to {@code pt} (rank 1); saving them again changes nothing.
+     */
+    @BeforeEach
+    void fillLeaderboard() throws IOException {
+        for (int i = 0; i < PLAYERS; i++) {
+            scoreRepository.saveScore(new Score(player(i), 10 * (i + 1)));
+        }
+    }
+
+    @Test
+    void topReturnsTheBestPlayers() throws Exception {
+        mockMvc.perform(get("/api/scores").param("top", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(PLAYERS)))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].nickname").value(player(PLAYERS - 1)))
+                .andExpect(jsonPath("$[2].nickname").value(player(PLAYERS - 3)));
+
+        mockMvc.perform(get("/api/scores").param("top", String.valueOf(PLAYERS + 5)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PLAYERS)));
+    }
+
+    @Test
+    void pagesCoverTheLeaderboardAndStopAtItsEnd() throws Exception {
+        mockMvc.perform(get("/api/scores").param("offset", "5").param("limit", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].nickname").value(player(PLAYERS - 6)))
+                .andExpect(jsonPath("$[3].nickname").value(player(PLAYERS - 9)));
+
+        mockMvc.perform(get("/api/scores").param("offset", "18").param("limit", "4"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].nickname").value(player(0)));
+
+        mockMvc.perform(get("/api/scores").param("offset", String.valueOf(PLAYERS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/api/scores"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(PLAYERS)));
+    }
+
+    @Test
+    void invalidPagesAreRejected() throws Exception {
+        mockMvc.perform(get("/api/scores").param("offset", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/scores").param("offset", "0").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/scores").param("limit", "1001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/scores").param("top", "0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void aroundIsCutAtBothEndsOfTheLeaderboard() throws Exception {
+        // Rank 10, with two players on each side
+        mockMvc.perform(get("/api/scores/around/{nickname}", player(10)).param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(10))
+                .andExpect(jsonPath("$.firstRank").value(8))
+                .andExpect(jsonPath("$.scores", hasSize(5)))
+                .andExpect(jsonPath("$.scores[2].nickname").value(player(10)));
+
+        // Rank 1 has nobody above it
+        mockMvc.perform(get("/api/scores/around/{nickname}", player(PLAYERS - 1)).param("k", "2"))
+                .andExpect(jsonPath("$.rank").value(1))
+                .andExpect(jsonPath("$.firstRank").value(1))
+                .andExpect(jsonPath("$.scores", hasSize(3)))
+                .andExpect(jsonPath("$.scores[0].nickname").value(player(PLAYERS - 1)));
+
+        // The last rank has nobody below it
+        mockMvc.perform(get("/api/scores/around/{nickname}", player(0)).param("k", "2"))
+                .andExpect(jsonPath("$.rank").value(PLAYERS))
+                .andExpect(jsonPath("$.firstRank").value(PLAYERS - 2))
+                .andExpect(jsonPath("$.scores", hasSize(3)))
+                .andExpect(jsonPath("$.scores[2].nickname").value(player(0)));
+    }
+
+    @Test
+    void aroundRejectsUnknownPlayersAndBadWindows() throws Exception {
+        mockMvc.perform(get("/api/scores/around/{nickname}", "nobody")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/scores/around/{nickname}", player(10)).param("k", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/scores/around/{nickname}", player(10)).param("k", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void leaderboardReadsAreConditionalOnItsVersion() throws Exception {
+        String eTag = mockMvc.perform(get("/api/scores"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/scores").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        // Pages share the leaderboard's version, and weak or listed tags match too
+        mockMvc.perform(get("/api/scores").param("top", "3").header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+                .andExpect(status().isNotModified());
+
+        // Improving the best score keeps the order the other tests expect
+        Score best = scoreRepository.getScoreAt(0);
+        assertTrue(scoreRepository.saveScore(new Score(best.getNickname(), best.getScore() + 1)));
+        String changed = mockMvc.perform(get("/api/scores").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].score").value(best.getScore() + 1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed);
+        mockMvc.perform(get("/api/scores").header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isNotModified());
+    }
+
+    private static String player(int index) {
+        return "p" + (char) ('a' + index);
+    }
+}
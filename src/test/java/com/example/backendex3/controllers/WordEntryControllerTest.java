@@ -0,0 +1,173 @@
+package com.example.backendex3.controllers;
+
+import com.example.backendex3.TestStorage;
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class WordEntryControllerTest {
+
+    private static final List<String> WORDS = List.of("tiger", "eagle", "blue", "tiara", "shark", "green", "tick");
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        TestStorage.register(registry, directory);
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WordRepository wordRepository;
+
+    /**
+     * Adds the test words, once for the whole class.
+     */
+    @BeforeEach
+    void addWords() {
+        for (String word : WORDS) {
+            if (wordRepository.findByWord(word) == null) {
+                wordRepository.addWord(new WordEntry("things", word, "hint of " + word));
+            }
+        }
+    }
+
+    @Test
+    void listsEveryWordSorted() throws Exception {
+        mockMvc.perform(get("/wordEntry"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].word", contains("blue", "eagle", "green", "shark", "tiara", "tick", "tiger")));
+    }
+
+    @Test
+    void pagesWalkTheSortedWords() throws Exception {
+        mockMvc.perform(get("/wordEntry").param("offset", "0").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].word", contains("blue", "eagle", "green")));
+        mockMvc.perform(get("/wordEntry").param("offset", "3").param("limit", "3"))
+                .andExpect(jsonPath("$[*].word", contains("shark", "tiara", "tick")));
+        mockMvc.perform(get("/wordEntry").param("offset", "6").param("limit", "3"))
+                .andExpect(jsonPath("$[*].word", contains("tiger")));
+        mockMvc.perform(get("/wordEntry").param("offset", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void prefixKeepsMatchingWordsIgnoringCase() throws Exception {
+        mockMvc.perform(get("/wordEntry").param("prefix", "TI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].word", contains("tiara", "tick", "tiger")));
+        mockMvc.perform(get("/wordEntry").param("prefix", "ti").param("offset", "1").param("limit", "1"))
+                .andExpect(jsonPath("$[*].word", contains("tick")));
+        mockMvc.perform(get("/wordEntry").param("prefix", "zebra"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void exportedWordsImportBackThroughTheBulkEndpoint() throws Exception {
+        for (String format : new String[] {"csv", "ndjson"}) {
+            String contentType = format.equals("csv") ? "text/csv" : "application/x-ndjson";
+            MvcResult export = mockMvc.perform(get("/wordEntry/export").param("format", format))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(export))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, startsWith(contentType)))
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            assertEquals(WORDS.size() + (format.equals("csv") ? 1 : 0), body.lines().count(), body);
+
+            // Every exported word already exists, so importing the export adds nothing and reports each line
+            mockMvc.perform(post("/wordEntry/bulk").contentType(contentType).content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.added").value(0))
+                    .andExpect(jsonPath("$.rejected").value(WORDS.size()))
+                    .andExpect(jsonPath("$.errors[0].message").value("Word already exists"));
+        }
+
+        try {
+            mockMvc.perform(post("/wordEntry/bulk").contentType("text/csv")
+                            .content("word,category,hint\nlion,cats,\"King of the jungle, he roars\"\nlion,cats,Duplicate\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.added").value(1))
+                    .andExpect(jsonPath("$.rejected").value(1))
+                    .andExpect(jsonPath("$.errors[0].line").value(3));
+            assertEquals("King of the jungle, he roars", wordRepository.findByWord("lion").getHint());
+        }
+        finally {
+            WordEntry lion = wordRepository.findByWord("lion");
+            if (lion != null) {
+                wordRepository.deleteById(lion.getId());
+            }
+        }
+    }
+
+    @Test
+    void wordReadsAreConditionalOnTheWordBankVersion() throws Exception {
+        String eTag = mockMvc.perform(get("/wordEntry"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/wordEntry").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // The category list and pages share the word bank's version
+        mockMvc.perform(get("/wordEntry/getCategories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/wordEntry").param("prefix", "ti").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        WordEntry tiger = wordRepository.findByWord("tiger");
+        assertTrue(wordRepository.updateById(tiger.getId(), new WordEntry("things", "tiger", "Changed hint")));
+        String changed = mockMvc.perform(get("/wordEntry").param("prefix", "tig").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hint").value("Changed hint"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, changed);
+        mockMvc.perform(get("/wordEntry/getCategories").header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void invalidPagesAreRejected() throws Exception {
+        mockMvc.perform(get("/wordEntry").param("offset", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/wordEntry").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/wordEntry").param("limit", "1001")).andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionRepositoryTest {
+
+    private static final WordEntry TIGER = new WordEntry("animals", "tiger", "Big striped cat");
+
+    @Test
+    void unusedSessionExpiresAndIsNoLongerHandedOut() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GameSessionRepository repository = new GameSessionRepository(200, 10, registry);
+        try {
+            GameSession used = repository.create("alice", TIGER);
+            GameSession idle = repository.create("bob", TIGER);
+
+            // Using a session keeps it alive past its first TTL
+            for (int i = 0; i < 6; i++) {
+                Thread.sleep(50);
+                assertEquals("alice", repository.update(used.getId(), GameSession::getNickname));
+            }
+            assertNull(repository.update(idle.getId(), GameSession::getNickname));
+            assertEquals(1.0, registry.get("games.sessions.expired").counter().count());
+
+            // The sweep removes it without anyone asking for it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (repository.size() > 0) {
+                assertTrue(System.nanoTime() < deadline, "Expired session never swept");
+                Thread.sleep(20);
+            }
+            assertNull(repository.update(used.getId(), GameSession::getNickname));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void sessionCountIsCapped() {
+        GameSessionRepository repository = new GameSessionRepository(60_000, 2, new SimpleMeterRegistry());
+        try {
+            GameSession first = repository.create("alice", TIGER);
+            assertNotNull(repository.create("bob", TIGER));
+            assertNull(repository.create("carol", TIGER));
+
+            assertTrue(repository.remove(first.getId()));
+            assertFalse(repository.remove(first.getId()));
+            assertNotNull(repository.create("carol", TIGER));
+            assertNull(repository.update(UUID.randomUUID(), GameSession::getNickname));
+        }
+        finally {
+            repository.close();
+        }
+    }
+}
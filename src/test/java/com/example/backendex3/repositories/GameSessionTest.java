@@ -0,0 +1,138 @@
+package com.example.backendex3.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+
+    @Test
+    void letterGuessesMatchScanningTheWord() {
+        Random random = new Random(11);
+        // Up to 64 characters use position masks, longer words the scanning fallback
+        for (int length : new int[] {1, 5, 63, 64, 65, 100, 300}) {
+            for (int game = 0; game < 20; game++) {
+                String word = randomWord(random, length);
+                GameSession session = start(word);
+                TreeSet<Character> guessed = new TreeSet<>();
+                int failed = 0;
+
+                while (!session.isFinished()) {
+                    char letter = (char) ('a' + random.nextInt(26));
+                    boolean repeated = !guessed.add(letter);
+                    if (!repeated && word.indexOf(letter) < 0) {
+                        failed++;
+                    }
+
+                    boolean won = session.guessLetter(letter, 1_000_000);
+                    assertEquals(mask(word, guessed), session.getMaskedWord(), word);
+                    assertEquals(won, session.isFinished());
+                    assertEquals(failed, session.getFailedAttempts());
+                    assertEquals(joined(guessed), session.getGuessedLetters());
+                }
+                assertEquals(word, session.getMaskedWord());
+            }
+        }
+    }
+
+    @Test
+    void charactersOtherThanLettersAreNeverHidden() {
+        for (String word : new String[] {"tel aviv", "x-ray " + "a".repeat(70)}) {
+            GameSession session = start(word);
+            assertEquals(mask(word, new TreeSet<>()), session.getMaskedWord());
+            assertFalse(session.guessWord(word.replace('a', 'b'), 0));
+            assertTrue(session.guessWord(word, 0));
+        }
+    }
+
+    @Test
+    void exactWordWins() {
+        for (String word : new String[] {"tiger", "a".repeat(64) + "b"}) {
+            GameSession session = start(word);
+            session.guessLetter('z', 0);
+            assertTrue(session.guessWord(word, 2_000_000));
+            assertTrue(session.isFinished());
+            assertEquals(word, session.getMaskedWord());
+            assertEquals(1, session.getFailedAttempts());
+            assertEquals(2, session.getTimeTakenMS());
+        }
+    }
+
+    @Test
+    void wrongWordRevealsNothingAndCostsHiddenLetters() {
+        for (String word : new String[] {"tiger", "tigers".repeat(11)}) {
+            GameSession session = start(word);
+            session.guessLetter('t', 0);
+            String masked = session.getMaskedWord();
+            int hidden = (int) masked.chars().filter(c -> c == '_').count();
+
+            // Shares every letter with the word, so nothing may leak through it
+            String anagram = new StringBuilder(word).reverse().toString();
+            assertFalse(session.guessWord(anagram, 0));
+            assertFalse(session.isFinished());
+            assertEquals(masked, session.getMaskedWord());
+            assertEquals("t", session.getGuessedLetters());
+            assertEquals(hidden, session.getFailedAttempts());
+        }
+    }
+
+    @Test
+    void rejectsInvalidGuesses() {
+        GameSession session = start("tiger");
+        assertThrows(IllegalArgumentException.class, () -> session.guessWord("tigers", 0));
+        assertThrows(IllegalArgumentException.class, () -> session.guessLetter('A', 0));
+        assertEquals(0, session.getFailedAttempts());
+
+        session.guess("tiger", 0);
+        assertThrows(IllegalArgumentException.class, () -> session.guess("t", 0));
+        assertThrows(IllegalArgumentException.class, () -> session.guess("tiger", 0));
+    }
+
+    @Test
+    void repeatedLetterIsIgnored() {
+        GameSession session = start("tiger");
+        assertFalse(session.guess("z", 0));
+        assertFalse(session.guess("z", 0));
+        assertFalse(session.guess("t", 0));
+        assertFalse(session.guess("t", 0));
+        assertEquals(1, session.getFailedAttempts());
+        assertEquals("t____", session.getMaskedWord());
+    }
+
+    private static GameSession start(String word) {
+        return new GameSession(UUID.randomUUID(), "player", new WordEntry("test", word, "hint"), 0);
+    }
+
+    /**
+     * Masks the letters of a word not guessed yet by scanning it, as a reference for the session's masks.
+     */
+    private static String mask(String word, TreeSet<Character> guessed) {
+        StringBuilder masked = new StringBuilder(word.length());
+        for (char c : word.toCharArray()) {
+            masked.append(c >= 'a' && c <= 'z' && !guessed.contains(c) ? '_' : c);
+        }
+        return masked.toString();
+    }
+
+    private static String joined(TreeSet<Character> letters) {
+        StringBuilder joined = new StringBuilder();
+        letters.forEach(joined::append);
+        return joined.toString();
+    }
+
+    /**
+     * Builds a word drawing from a random subset of the alphabet, so that some letters are missing.
+     */
+    private static String randomWord(Random random, int length) {
+        int alphabet = 1 + random.nextInt(26);
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = (char) ('a' + random.nextInt(alphabet));
+        }
+        return new String(word);
+    }
+}
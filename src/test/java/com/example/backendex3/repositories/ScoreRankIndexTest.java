@@ -0,0 +1,111 @@
+package com.example.backendex3.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreRankIndexTest {
+
+    /**
+     * A player in the oracle, with the order in which their score was reached.
+     */
+    private record Entry(String nickname, int score, long sequence) {}
+
+    private static final Comparator<Entry> RANK_ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::sequence);
+
+    @Test
+    void matchesSortedListAfterRandomUpdates() {
+        Random random = new Random(7);
+        ScoreRankIndex index = new ScoreRankIndex();
+        Map<String, Entry> oracle = new LinkedHashMap<>();
+        long sequence = 0;
+
+        for (int i = 0; i < 5_000; i++) {
+            // Few players and few distinct scores, so improvements and ties are frequent
+            String nickname = "Player" + random.nextInt(300);
+            if (random.nextBoolean()) {
+                nickname = nickname.toUpperCase(Locale.ROOT);
+            }
+            int score = random.nextInt(50);
+
+            String key = nickname.toLowerCase(Locale.ROOT);
+            Entry existing = oracle.get(key);
+            boolean expectedChange = existing == null || score > existing.score();
+            if (expectedChange) {
+                oracle.put(key, new Entry(nickname, score, sequence++));
+            }
+            assertEquals(expectedChange, index.update(new Score(nickname, score)));
+
+            if (i % 500 == 0) {
+                assertMatches(oracle, index, random);
+            }
+        }
+        assertMatches(oracle, index, random);
+    }
+
+    @Test
+    void tiesKeepWhoReachedTheScoreFirst() {
+        ScoreRankIndex index = new ScoreRankIndex();
+        index.update(new Score("alice", 10));
+        index.update(new Score("bob", 20));
+        index.update(new Score("carol", 10));
+        index.update(new Score("alice", 20));
+
+        assertEquals(List.of("bob", "alice", "carol"), nicknames(index.toList()));
+        assertEquals(2, index.rankOf("ALICE"));
+        assertFalse(index.update(new Score("Bob", 20)));
+        assertEquals(1, index.rankOf("bob"));
+    }
+
+    @Test
+    void outOfRangeQueries() {
+        ScoreRankIndex index = new ScoreRankIndex();
+        assertNull(index.scoreAt(0));
+        assertEquals(-1, index.rankOf("nobody"));
+        assertTrue(index.range(0, 10).isEmpty());
+
+        index.update(new Score("alice", 1));
+        assertNull(index.scoreAt(-1));
+        assertNull(index.scoreAt(1));
+        assertTrue(index.range(1, 10).isEmpty());
+        assertTrue(index.range(0, 0).isEmpty());
+    }
+
+    /**
+     * Checks size, ranks, positions and a few random ranges of the index against the oracle.
+     */
+    private static void assertMatches(Map<String, Entry> oracle, ScoreRankIndex index, Random random) {
+        List<Entry> sorted = new ArrayList<>(oracle.values());
+        sorted.sort(RANK_ORDER);
+
+        assertEquals(sorted.size(), index.size());
+        assertEquals(sorted.stream().map(Entry::nickname).toList(), nicknames(index.toList()));
+        for (int i = 0; i < sorted.size(); i++) {
+            Entry entry = sorted.get(i);
+            assertEquals(i + 1, index.rankOf(entry.nickname()));
+            assertEquals(entry.score(), index.get(entry.nickname()).getScore());
+            assertEquals(entry.nickname(), index.scoreAt(i).getNickname());
+        }
+
+        for (int i = 0; i < 20; i++) {
+            int offset = random.nextInt(sorted.size() + 5);
+            int limit = random.nextInt(40);
+            List<String> expected = sorted.subList(Math.min(offset, sorted.size()), Math.min(offset + limit, sorted.size()))
+                    .stream().map(Entry::nickname).toList();
+            assertEquals(expected, nicknames(index.range(offset, limit)));
+        }
+    }
+
+    private static List<String> nicknames(List<Score> scores) {
+        return scores.stream().map(Score::getNickname).toList();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void scoresSurviveARestartThroughTheLog() throws IOException {
+        ScoreRepository repository = open(1000);
+        try {
+            assertTrue(repository.saveScore(new Score("alice", 10)));
+            assertTrue(repository.saveScore(new Score("bob", 30)));
+            assertTrue(repository.saveScore(new Score("alice", 40)));
+            assertFalse(repository.saveScore(new Score("bob", 20)));
+        }
+        finally {
+            repository.close();
+        }
+        assertFalse(Files.exists(directory.resolve("scores.bin")));
+
+        repository = open(1000);
+        try {
+            assertEquals(List.of("alice:40", "bob:30"), scores(repository));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void scoresSurviveARestartAfterCompaction() throws IOException {
+        ScoreRepository repository = open(2);
+        try {
+            repository.saveScore(new Score("alice", 10));
+            repository.saveScore(new Score("bob", 30));
+            repository.saveScore(new Score("carol", 20));
+        }
+        finally {
+            repository.close();
+        }
+        assertTrue(Files.exists(directory.resolve("scores.bin")));
+
+        repository = open(2);
+        try {
+            assertEquals(List.of("bob:30", "carol:20", "alice:10"), scores(repository));
+            assertEquals(2, repository.getRank("carol"));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void concurrentSubmissionsAreAllDurable() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScoreRepository repository = open(1000, registry);
+        int threads = 16;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(repository.saveScore(new Score("player" + thread + "x" + i, thread * perThread + i)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            repository.close();
+        }
+
+        // Submitters waiting at the same time share a write, so there is never more than one per score
+        long writes = registry.get("storage.file.write").tag("file", "scores.log").timer().count();
+        assertTrue(writes <= threads * perThread, writes + " writes");
+
+        ScoreRepository reopened = open(1000);
+        try {
+            assertEquals(threads * perThread, reopened.getScoreCount());
+            assertEquals("player15x49", reopened.getScoreAt(0).getNickname());
+        }
+        finally {
+            reopened.close();
+        }
+    }
+
+    private ScoreRepository open(int compactAfter) {
+        return open(compactAfter, new SimpleMeterRegistry());
+    }
+
+    private ScoreRepository open(int compactAfter, SimpleMeterRegistry registry) {
+        return new ScoreRepository(directory.resolve("scores.bin").toString(), directory.resolve("scores.log").toString(),
+                1, compactAfter, "sync", 100, 1000, registry);
+    }
+
+    private static List<String> scores(ScoreRepository repository) {
+        return repository.getAllScores().stream().map(score -> score.getNickname() + ":" + score.getScore()).toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedLockTest {
+
+    @Test
+    void uncontendedAcquisitionsAreNotRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TimedLock lock = TimedLock.of(new ReentrantLock(), registry, "test", "write");
+        for (int i = 0; i < 10; i++) {
+            lock.lock();
+            lock.unlock();
+        }
+        assertEquals(0, timer(registry, "write").count());
+    }
+
+    @Test
+    void contendedAcquisitionRecordsItsWait() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReentrantLock inner = new ReentrantLock();
+        TimedLock lock = TimedLock.of(inner, registry, "test", "write");
+
+        inner.lock();
+        Thread waiter = Thread.ofPlatform().start(() -> {
+            lock.lock();
+            lock.unlock();
+        });
+        awaitQueued(() -> inner.hasQueuedThread(waiter));
+        Thread.sleep(20);
+        inner.unlock();
+        waiter.join();
+
+        Timer timer = timer(registry, "write");
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.MILLISECONDS) >= 10, "Recorded " + timer.totalTime(TimeUnit.MILLISECONDS) + " ms");
+    }
+
+    @Test
+    void readerDoesNotOvertakeAQueuedWriter() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReentrantReadWriteLock inner = new ReentrantReadWriteLock();
+        TimedLock readLock = TimedLock.readLockOf(inner, registry, "test");
+        TimedLock writeLock = TimedLock.writeLockOf(inner, registry, "test");
+
+        inner.readLock().lock();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            writeLock.lock();
+            writeLock.unlock();
+        });
+        awaitQueued(() -> inner.hasQueuedThread(writer));
+
+        AtomicBoolean readerIn = new AtomicBoolean();
+        CountDownLatch readerDone = new CountDownLatch(1);
+        Thread reader = Thread.ofPlatform().start(() -> {
+            readLock.lock();
+            readerIn.set(true);
+            readLock.unlock();
+            readerDone.countDown();
+        });
+
+        // While the writer waits, a new reader queues behind it instead of joining the current reader
+        assertFalse(readerDone.await(100, TimeUnit.MILLISECONDS));
+        assertFalse(readerIn.get());
+        inner.readLock().unlock();
+        assertTrue(readerDone.await(5, TimeUnit.SECONDS));
+        writer.join();
+        reader.join();
+
+        assertEquals(1, timer(registry, "read").count());
+        assertEquals(1, timer(registry, "write").count());
+    }
+
+    private static Timer timer(SimpleMeterRegistry registry, String name) {
+        return registry.get("repository.lock.wait").tag("repository", "test").tag("lock", name).timer();
+    }
+
+    private static void awaitQueued(BooleanSupplier queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!queued.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Thread never queued for the lock");
+            Thread.sleep(1);
+        }
+    }
+}
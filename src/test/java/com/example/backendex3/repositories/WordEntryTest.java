@@ -0,0 +1,87 @@
+package com.example.backendex3.repositories;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordEntryTest {
+
+    @Test
+    void categoryEntersTheDictionaryOnlyWhenIndexed() {
+        WordEntry entry = new WordEntry("unindexedcategory", "tiger", "Big striped cat");
+        assertEquals("unindexedcategory", entry.getCategory());
+        assertEquals(CategoryDictionary.NONE, entry.getCategoryCode());
+        assertEquals(CategoryDictionary.NONE, CategoryDictionary.lookup("unindexedcategory"));
+
+        int code = entry.internCategory();
+        assertEquals(code, CategoryDictionary.lookup("unindexedcategory"));
+        assertEquals(code, entry.getCategoryCode());
+        assertEquals("unindexedcategory", entry.getCategory());
+        assertEquals(code, entry.internCategory());
+    }
+
+    @Test
+    void entriesOfACategoryShareItsName() {
+        WordEntry first = new WordEntry(new String("sharedcategory"), "tiger", "hint");
+        WordEntry second = new WordEntry(new String("sharedcategory"), "eagle", "hint");
+        assertEquals(first.internCategory(), second.internCategory());
+        assertSame(first.getCategory(), second.getCategory());
+    }
+
+    @Test
+    void settingTheCategoryDropsTheCode() {
+        WordEntry entry = new WordEntry("animals", "tiger", "Big striped cat");
+        entry.internCategory();
+        entry.setCategory("neverindexed");
+        assertEquals("neverindexed", entry.getCategory());
+        assertEquals(CategoryDictionary.NONE, entry.getCategoryCode());
+
+        entry.setCategory(null);
+        assertNull(entry.getCategory());
+        assertEquals(CategoryDictionary.NONE, entry.internCategory());
+    }
+
+    @Test
+    void idIsStoredAsTwoLongs() {
+        UUID id = UUID.randomUUID();
+        WordEntry entry = new WordEntry(id.toString(), "animals", "tiger", "hint");
+        assertEquals(id, entry.getUuid());
+        assertEquals(id.getMostSignificantBits(), entry.getIdMostSignificantBits());
+        assertEquals(id.getLeastSignificantBits(), entry.getIdLeastSignificantBits());
+        assertEquals(id.toString(), entry.getId());
+    }
+
+    @Test
+    void rejectsIdsThatAreNotUuids() {
+        assertThrows(IllegalArgumentException.class, () -> WordEntry.toUuid("not-a-uuid"));
+        assertThrows(IllegalArgumentException.class, () -> WordEntry.toUuid(null));
+        WordEntry entry = new WordEntry("animals", "tiger", "hint");
+        assertThrows(IllegalArgumentException.class, () -> entry.setId("42"));
+        UUID id = entry.getUuid();
+        entry.setId(null);
+        assertEquals(id, entry.getUuid());
+    }
+
+    @Test
+    void serializedFormKeepsStringFields() throws IOException, ClassNotFoundException {
+        WordEntry entry = new WordEntry("animals", "tiger", "Big striped cat");
+        entry.internCategory();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(entry);
+        }
+        WordEntry copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (WordEntry) in.readObject();
+        }
+
+        assertEquals(entry.getUuid(), copy.getUuid());
+        assertEquals("animals", copy.getCategory());
+        assertEquals("tiger", copy.getWord());
+        assertEquals("Big striped cat", copy.getHint());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.backendex3.repositories;
+
+import com.example.backendex3.storage.BinaryFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replay, rotation and compaction of the {@link WordRepository} journal.
+ */
+class WordJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysJournalOnTopOfSnapshot() throws IOException {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+        WordEntry blue = new WordEntry("colors", "blue", "Color of the sky");
+
+        WordRepository repository = open(1000);
+        repository.addWord(tiger);
+        repository.addWords(List.of(eagle, blue));
+        repository.updateById(eagle.getId(), new WordEntry("birds", "eagle", "Bald national bird"));
+        repository.deleteById(blue.getId());
+        repository.close();
+
+        // Nothing was compacted: the changes are only in the journal
+        assertFalse(Files.exists(wordFile()));
+        assertEquals(1, journalSegments().size());
+
+        repository = open(1000);
+        try {
+            assertEquals(5, repository.getVersion());
+            assertEquals(List.of("eagle", "tiger"), words(repository));
+            assertEquals("birds", repository.findById(eagle.getId()).getCategory());
+            assertEquals("Bald national bird", repository.findByWord("eagle").getHint());
+            assertNull(repository.findById(blue.getId()));
+            assertEquals(List.of("animals", "birds"), repository.getCategories());
+        }
+        finally {
+            repository.close();
+        }
+
+        // Replayed changes are folded into the snapshot at startup
+        assertEquals(5, BinaryFormat.readWordSnapshot(wordFile()).getSequence());
+        assertTrue(journalSegments().stream().allMatch(segment -> sizeOf(segment) == 0));
+    }
+
+    @Test
+    void replaysUpToTornTail() throws IOException {
+        WordRepository repository = open(1000);
+        repository.addWord(new WordEntry("animals", "tiger", "Big striped cat"));
+        repository.addWord(new WordEntry("animals", "eagle", "Flying predator"));
+        repository.close();
+        Files.write(journalSegments().get(0), new byte[] {0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        repository = open(1000);
+        try {
+            assertEquals(2, repository.getVersion());
+            assertEquals(List.of("eagle", "tiger"), words(repository));
+            repository.addWord(new WordEntry("colors", "blue", "Color of the sky"));
+        }
+        finally {
+            repository.close();
+        }
+
+        repository = open(1000);
+        try {
+            assertEquals(List.of("blue", "eagle", "tiger"), words(repository));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void rotatesAndCompactsSegments() throws IOException {
+        WordRepository repository = open(5);
+        List<WordEntry> added = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            WordEntry entry = new WordEntry("letters", "word" + (char) ('a' + i), "Hint " + i);
+            repository.addWord(entry);
+            added.add(entry);
+        }
+        repository.deleteById(added.get(0).getId());
+        // Waits for the background snapshot, if one is still being written
+        repository.close();
+
+        long snapshotSequence = BinaryFormat.readWordSnapshot(wordFile()).getSequence();
+        assertTrue(snapshotSequence >= 5, "Expected at least one compaction, snapshot includes " + snapshotSequence);
+        // Segments covered by the snapshot are deleted, only newer ones are left
+        assertTrue(journalSegments().size() <= 2, "Expected covered segments to be deleted: " + journalSegments());
+
+        repository = open(5);
+        try {
+            assertEquals(24, repository.getVersion());
+            assertEquals(22, repository.getWords().size());
+            assertNull(repository.findById(added.get(0).getId()));
+            assertNotNull(repository.findByWord("wordw"));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void skipsRecordsTheSnapshotIncludes() throws IOException {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+
+        WordRepository repository = open(1000);
+        repository.addWords(List.of(tiger, eagle));
+        repository.close();
+        Path segment = journalSegments().get(0);
+        byte[] staleSegment = Files.readAllBytes(segment);
+
+        repository = open(1000);
+        repository.deleteById(tiger.getId());
+        repository.close();
+
+        // A segment left behind by a compaction interrupted after writing the snapshot, whose records it includes
+        Files.write(directory.resolve("words.journal.0"), staleSegment);
+
+        repository = open(1000);
+        try {
+            assertEquals(3, repository.getVersion());
+            assertEquals(List.of("eagle"), words(repository));
+        }
+        finally {
+            repository.close();
+        }
+    }
+
+    private WordRepository open(int compactAfter) {
+        return new WordRepository(wordFile().toString(), "heap", directory.resolve("words.map").toString(),
+                directory.resolve("words.journal").toString(), 1, compactAfter, "sync", 100, 1000,
+                new SimpleMeterRegistry());
+    }
+
+    private Path wordFile() {
+        return directory.resolve("words.bin");
+    }
+
+    /**
+     * Returns the journal segments in the test directory, sorted by name.
+     */
+    private List<Path> journalSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("words\\.journal\\.\\d+")).sorted().toList();
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<String> words(WordRepository repository) {
+        return repository.getWords().stream().map(WordEntry::getWord).sorted().toList();
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private WordRepository repository;
+
+    @BeforeEach
+    void open() {
+        repository = new WordRepository(directory.resolve("words.bin").toString(), "heap",
+                directory.resolve("words.map").toString(), directory.resolve("words.journal").toString(),
+                1, 1000, "sync", 100, 1000, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        repository.close();
+    }
+
+    @Test
+    void findsEntriesByIdWordAndCategory() {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+        WordEntry blue = new WordEntry("colors", "blue", "Color of the sky");
+        repository.addWord(tiger);
+        repository.addWords(List.of(eagle, blue));
+
+        assertSame(tiger, repository.findById(tiger.getId()));
+        assertSame(eagle, repository.findByWord("eagle"));
+        assertNull(repository.findByWord("lion"));
+        assertEquals(List.of("eagle", "tiger"), words(repository.findByCategory("animals")));
+        assertTrue(repository.findByCategory("shapes").isEmpty());
+
+        repository.deleteById(tiger.getId());
+        assertNull(repository.findById(tiger.getId()));
+        assertNull(repository.findByWord("tiger"));
+        assertEquals(List.of("eagle"), words(repository.findByCategory("animals")));
+    }
+
+    @Test
+    void updateMovesTheEntryBetweenIndexes() {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        repository.addWord(tiger);
+
+        assertTrue(repository.updateById(tiger.getId(), new WordEntry("cats", "lion", "King of the jungle")));
+        assertNull(repository.findByWord("tiger"));
+        assertEquals("King of the jungle", repository.findByWord("lion").getHint());
+        assertEquals(tiger.getUuid(), repository.findByWord("lion").getUuid());
+        assertTrue(repository.findByCategory("animals").isEmpty());
+        assertEquals(List.of("lion"), words(repository.findByCategory("cats")));
+        assertFalse(repository.updateById(new WordEntry().getId(), new WordEntry("cats", "puma", "hint")));
+    }
+
+    @Test
+    void rejectsDuplicateWordsAndIds() {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+        repository.addWords(List.of(tiger, eagle));
+
+        assertThrows(IllegalArgumentException.class, () -> repository.addWord(new WordEntry("cats", "tiger", "hint")));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.addWord(new WordEntry(tiger.getId(), "cats", "lion", "hint")));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.updateById(eagle.getId(), new WordEntry("animals", "tiger", "hint")));
+        // Keeping its own word is not a clash
+        assertTrue(repository.updateById(eagle.getId(), new WordEntry("birds", "eagle", "Bald eagle")));
+
+        // A batch with a clash, even within itself, adds nothing
+        assertThrows(IllegalArgumentException.class, () -> repository.addWords(List.of(
+                new WordEntry("cats", "lion", "hint"), new WordEntry("cats", "tiger", "hint"))));
+        assertThrows(IllegalArgumentException.class, () -> repository.addWords(List.of(
+                new WordEntry("cats", "lion", "hint"), new WordEntry("cats", "lion", "hint"))));
+        assertNull(repository.findByWord("lion"));
+        assertEquals(2, repository.getWords().size());
+        assertEquals(3, repository.getVersion());
+    }
+
+    @Test
+    void concurrentAddsOfOneWordKeepOneEntry() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String word = "word" + (char) ('a' + round);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            repository.addWord(new WordEntry("race", word, "hint"));
+                            return true;
+                        }
+                        catch (IllegalArgumentException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int added = 0;
+                for (Future<Boolean> result : results) {
+                    added += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+                }
+                assertEquals(1, added, "Word " + word + " added more than once");
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        // Every stored entry is reachable through every index
+        List<WordEntry> stored = repository.getWords();
+        assertEquals(20, stored.size());
+        assertEquals(20, repository.findByCategory("race").size());
+        assertEquals(20, repository.getCategoryCounts().get("race"));
+        for (WordEntry entry : stored) {
+            assertSame(entry, repository.findById(entry.getId()));
+            assertSame(entry, repository.findByWord(entry.getWord()));
+        }
+    }
+
+    @Test
+    void randomPickStaysInItsCategoryAndFollowsChanges() {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+        WordEntry shark = new WordEntry("animals", "shark", "Sea hunter");
+        repository.addWords(List.of(tiger, eagle, shark, new WordEntry("colors", "blue", "Color of the sky")));
+
+        Set<String> picked = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            picked.add(repository.findRandomByCategory("animals").getWord());
+        }
+        assertEquals(Set.of("tiger", "eagle", "shark"), picked);
+        assertNull(repository.findRandomByCategory("shapes"));
+
+        // Deleted and moved words leave the category's picks at once
+        repository.deleteById(tiger.getId());
+        repository.updateById(eagle.getId(), new WordEntry("birds", "eagle", "Flying predator"));
+        for (int i = 0; i < 50; i++) {
+            assertEquals("shark", repository.findRandomByCategory("animals").getWord());
+            assertEquals("eagle", repository.findRandomByCategory("birds").getWord());
+        }
+        repository.deleteById(shark.getId());
+        assertNull(repository.findRandomByCategory("animals"));
+    }
+
+    @Test
+    void pickByIndexSeesTheCategorySize() {
+        repository.addWords(List.of(new WordEntry("animals", "tiger", "hint"), new WordEntry("animals", "eagle", "hint"),
+                new WordEntry("colors", "blue", "hint")));
+
+        int[] size = new int[1];
+        Set<String> picked = new HashSet<>();
+        for (int index = 0; index < 2; index++) {
+            int chosen = index;
+            picked.add(repository.findInCategory("animals", categorySize -> {
+                size[0] = categorySize;
+                return chosen;
+            }).getWord());
+        }
+        assertEquals(2, size[0]);
+        assertEquals(Set.of("tiger", "eagle"), picked);
+        assertNull(repository.findInCategory("shapes", categorySize -> fail("Picked from an empty category")));
+    }
+
+    @Test
+    void readersNeverSeeAHalfUpdatedEntry() throws Exception {
+        WordEntry entry = new WordEntry("animals", "tiger", "hint of tiger");
+        repository.addWord(entry);
+        String id = entry.getId();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    int reads = 0;
+                    while (running.get()) {
+                        WordEntry read = repository.findById(id);
+                        assertEquals("hint of " + read.getWord(), read.getHint());
+                        assertEquals(read.getWord().equals("tiger") ? "animals" : "cats", read.getCategory());
+                        for (WordEntry listed : repository.getWords()) {
+                            assertEquals("hint of " + listed.getWord(), listed.getHint());
+                        }
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+
+            for (int i = 0; i < 500; i++) {
+                WordEntry update = i % 2 == 0
+                        ? new WordEntry("cats", "lion", "hint of lion")
+                        : new WordEntry("animals", "tiger", "hint of tiger");
+                assertTrue(repository.updateById(id, update));
+            }
+            running.set(false);
+            for (Future<Integer> reader : readers) {
+                assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+            }
+        }
+        finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertEquals("tiger", repository.findById(id).getWord());
+    }
+
+    @Test
+    void savedWordsAndLaterChangesSurviveARestart() throws IOException {
+        WordEntry tiger = new WordEntry("animals", "tiger", "Big striped cat");
+        WordEntry eagle = new WordEntry("animals", "eagle", "Flying predator");
+        repository.addWords(List.of(tiger, eagle));
+        repository.saveToFile();
+        repository.updateById(eagle.getId(), new WordEntry("birds", "eagle", "Bald eagle"));
+        repository.addWord(new WordEntry("colors", "blue", "Color of the sky"));
+        long version = repository.getVersion();
+        repository.close();
+
+        open();
+        assertEquals(version, repository.getVersion());
+        assertEquals(List.of("blue", "eagle", "tiger"), words(repository.getWords()));
+        assertEquals("Bald eagle", repository.findById(eagle.getId()).getHint());
+        assertEquals(Map.of("animals", 1, "birds", 1, "colors", 1), repository.getCategoryCounts());
+    }
+
+    @Test
+    void categoryListAndCountsFollowEveryChange() {
+        assertEquals(List.of(), repository.getCategories());
+        assertEquals(Map.of(), repository.getCategoryCounts());
+
+        WordEntry tiger = new WordEntry("animals", "tiger", "hint");
+        WordEntry blue = new WordEntry("colors", "blue", "hint");
+        repository.addWords(List.of(tiger, blue, new WordEntry("animals", "eagle", "hint")));
+        repository.addWord(new WordEntry("birds", "robin", "hint"));
+        assertEquals(List.of("animals", "birds", "colors"), repository.getCategories());
+        assertEquals(Map.of("animals", 2, "birds", 1, "colors", 1), repository.getCategoryCounts());
+
+        repository.updateById(tiger.getId(), new WordEntry("cats", "tiger", "hint"));
+        repository.deleteById(blue.getId());
+        assertEquals(List.of("animals", "birds", "cats"), repository.getCategories());
+        assertEquals(Map.of("animals", 1, "birds", 1, "cats", 1), repository.getCategoryCounts());
+        assertEquals(List.of("animals", "birds", "cats"), List.copyOf(repository.getCategoryCounts().keySet()));
+
+        // A rejected change leaves the cache as it was
+        assertThrows(IllegalArgumentException.class, () -> repository.addWord(new WordEntry("shapes", "robin", "hint")));
+        assertEquals(List.of("animals", "birds", "cats"), repository.getCategories());
+        assertThrows(UnsupportedOperationException.class, () -> repository.getCategories().add("shapes"));
+        assertThrows(UnsupportedOperationException.class, () -> repository.getCategoryCounts().put("shapes", 1));
+    }
+
+    private static List<String> words(List<WordEntry> entries) {
+        return entries.stream().map(WordEntry::getWord).sorted().toList();
+    }
+}
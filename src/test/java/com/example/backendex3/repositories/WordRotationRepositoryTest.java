@@ -0,0 +1,137 @@
+package com.example.backendex3.repositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordRotationRepositoryTest {
+
+    @Test
+    void permuteIsABijection() {
+        List<Integer> sizes = new ArrayList<>(List.of(1, 2, 3));
+        for (int k = 2; k <= 16; k++) {
+            sizes.add((1 << k) - 1);
+            sizes.add(1 << k);
+            sizes.add((1 << k) + 1);
+        }
+
+        Random random = new Random(3);
+        for (int size : sizes) {
+            for (int i = 0; i < 5; i++) {
+                assertBijection(size, random.nextLong());
+            }
+        }
+        assertBijection((1 << 20) + 1, random.nextLong());
+    }
+
+    @Test
+    void permuteDependsOnTheKey() {
+        int size = 1000;
+        int moved = 0;
+        for (int index = 0; index < size; index++) {
+            if (WordRotationRepository.permute(index, size, 1) != WordRotationRepository.permute(index, size, 2)) {
+                moved++;
+            }
+        }
+        assertTrue(moved > size / 2, "Only " + moved + " of " + size + " indexes differ between keys");
+    }
+
+    @Test
+    void permuteHandlesTheLargestSizes() {
+        for (int size : new int[] {(1 << 30) + 1, Integer.MAX_VALUE}) {
+            for (int index : new int[] {0, 1, size / 2, size - 1}) {
+                int permuted = WordRotationRepository.permute(index, size, 42);
+                assertTrue(permuted >= 0 && permuted < size, "Index " + permuted + " out of range " + size);
+            }
+        }
+    }
+
+    @Test
+    void playerSeesEveryWordOncePerPass() {
+        WordRotationRepository rotation = new WordRotationRepository(60_000, 100, new SimpleMeterRegistry());
+        try {
+            for (int size : new int[] {1, 2, 7, 64, 100}) {
+                for (int pass = 0; pass < 3; pass++) {
+                    BitSet seen = new BitSet(size);
+                    for (int i = 0; i < size; i++) {
+                        int index = rotation.next("Alice", "size" + size, size);
+                        assertFalse(seen.get(index), "Index " + index + " repeated within a pass of " + size);
+                        seen.set(index);
+                    }
+                    assertEquals(size, seen.cardinality());
+                }
+            }
+            // Nicknames are case-insensitive: both share one cursor per category
+            rotation.next("BOB", "animals", 10);
+            rotation.next("bob", "animals", 10);
+            assertEquals(6, rotation.size());
+        }
+        finally {
+            rotation.close();
+        }
+    }
+
+    @Test
+    void sizeChangeStartsAFullPass() {
+        WordRotationRepository rotation = new WordRotationRepository(60_000, 100, new SimpleMeterRegistry());
+        try {
+            Random random = new Random(5);
+            for (int round = 0; round < 50; round++) {
+                // Part of a pass over the old size, then a whole pass over the new one
+                int oldSize = 1 + random.nextInt(40);
+                int newSize = oldSize + 1 + random.nextInt(40);
+                if (random.nextBoolean() && oldSize > 1) {
+                    newSize = 1 + random.nextInt(oldSize - 1);
+                }
+                String category = "category" + round;
+                for (int i = random.nextInt(oldSize); i > 0; i--) {
+                    rotation.next("alice", category, oldSize);
+                }
+
+                BitSet seen = new BitSet(newSize);
+                for (int i = 0; i < newSize; i++) {
+                    int index = rotation.next("alice", category, newSize);
+                    assertTrue(index >= 0 && index < newSize, "Index " + index + " out of range " + newSize);
+                    assertFalse(seen.get(index), "Index " + index + " repeated after resizing " + oldSize + " to " + newSize);
+                    seen.set(index);
+                }
+            }
+        }
+        finally {
+            rotation.close();
+        }
+    }
+
+    @Test
+    void playersBeyondTheCapGetRandomWords() {
+        WordRotationRepository rotation = new WordRotationRepository(60_000, 2, new SimpleMeterRegistry());
+        try {
+            rotation.next("alice", "animals", 10);
+            rotation.next("bob", "animals", 10);
+            for (int i = 0; i < 100; i++) {
+                int index = rotation.next("carol", "animals", 10);
+                assertTrue(index >= 0 && index < 10);
+            }
+            assertEquals(2, rotation.size());
+        }
+        finally {
+            rotation.close();
+        }
+    }
+
+    private static void assertBijection(int size, long key) {
+        BitSet seen = new BitSet(size);
+        for (int index = 0; index < size; index++) {
+            int permuted = WordRotationRepository.permute(index, size, key);
+            assertTrue(permuted >= 0 && permuted < size, "Index " + permuted + " out of range " + size);
+            assertFalse(seen.get(permuted), "Index " + permuted + " reached twice for size " + size);
+            seen.set(permuted);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.backendex3.services;
+
+import com.example.backendex3.repositories.WordEntry;
+import com.example.backendex3.repositories.WordRepository;
+import com.example.backendex3.repositories.WordRotationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<WordRepository> repositories = new ArrayList<>();
+    private ValidatorFactory validatorFactory;
+    private WordRotationRepository rotation;
+
+    @BeforeEach
+    void open() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        rotation = new WordRotationRepository(60_000, 100, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        for (WordRepository repository : repositories) {
+            repository.close();
+        }
+        rotation.close();
+        validatorFactory.close();
+    }
+
+    @Test
+    void csvExportImportsBackIncludingQuotesCommasAndLineBreaks() throws IOException {
+        WordService source = service("source");
+        source.addWord(new WordEntry("animals", "tiger", "Big, \"striped\" cat"));
+        source.addWord(new WordEntry("animals", "eagle", "Flies high\nand sees far"));
+        source.addWord(new WordEntry("colors", "blue", "Color of the sky"));
+
+        WordService target = service("target");
+        Map<String, Object> summary = target.importWords(export(source, true), true);
+        assertEquals(3, summary.get("added"), summary.toString());
+        assertEquals(0, summary.get("rejected"));
+        assertSameEntries(source, target);
+    }
+
+    @Test
+    void ndjsonExportImportsBack() throws IOException {
+        WordService source = service("source");
+        source.addWord(new WordEntry("animals", "tiger", "Big, \"striped\" cat"));
+        source.addWord(new WordEntry("animals", "eagle", "Flies high\nand sees far"));
+
+        WordService target = service("target");
+        Map<String, Object> summary = target.importWords(export(source, false), false);
+        assertEquals(2, summary.get("added"), summary.toString());
+        assertSameEntries(source, target);
+    }
+
+    @Test
+    void headerIsFoundAfterAByteOrderMarkOrBlankLines() throws IOException {
+        WordService service = service("words");
+        Map<String, Object> summary = service.importWords(
+                input("\uFEFFword,hint,category\ntiger,Big striped cat,animals\n"), true);
+        assertEquals(1, summary.get("added"), summary.toString());
+        assertEquals("animals", find(service, "tiger").getCategory());
+
+        summary = service.importWords(input("\n  \nhint,word,category\n\"Flies\nhigh\",eagle,animals\n"), true);
+        assertEquals(1, summary.get("added"), summary.toString());
+        assertEquals("Flies\nhigh", find(service, "eagle").getHint());
+    }
+
+    @Test
+    void rejectedEntriesAreReportedByTheLineTheyStartOn() throws IOException {
+        WordService service = service("words");
+        Map<String, Object> summary = service.importWords(input(
+                "category,word,hint\nanimals,\"ti\nger\",hint\nanimals,eagle\nanimals,lion,\"never closed\n"), true);
+        assertEquals(0, summary.get("added"));
+        assertEquals(3, summary.get("rejected"));
+        List<?> lines = ((List<?>) summary.get("errors")).stream().map(error -> ((Map<?, ?>) error).get("line")).toList();
+        assertEquals(List.of(2, 4, 5), lines);
+    }
+
+    private WordService service(String name) {
+        WordRepository repository = new WordRepository(directory.resolve(name + ".bin").toString(), "heap",
+                directory.resolve(name + ".map").toString(), directory.resolve(name + ".journal").toString(),
+                1, 1000, "sync", 100, 1000, new SimpleMeterRegistry());
+        repositories.add(repository);
+        return new WordService(repository, rotation, validatorFactory.getValidator(), new ObjectMapper());
+    }
+
+    private static ByteArrayInputStream export(WordService service, boolean csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportWords(out, csv);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WordEntry find(WordService service, String word) {
+        return service.getAllWords().stream().filter(entry -> entry.getWord().equals(word)).findFirst().orElse(null);
+    }
+
+    private static void assertSameEntries(WordService expected, WordService actual) {
+        List<WordEntry> entries = expected.getAllWords();
+        assertEquals(entries.size(), actual.getAllWords().size());
+        for (WordEntry entry : entries) {
+            WordEntry copy = find(actual, entry.getWord());
+            assertNotNull(copy, entry.getWord());
+            assertEquals(entry.getId(), copy.getId());
+            assertEquals(entry.getCategory(), copy.getCategory());
+            assertEquals(entry.getHint(), copy.getHint());
+        }
+    }
+}
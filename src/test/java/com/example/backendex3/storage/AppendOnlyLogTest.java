@@ -0,0 +1,140 @@
+package com.example.backendex3.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsInAppendOrder() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 1)) {
+            log.append(bytes("first"));
+            log.append(List.of(bytes("second"), bytes(""), bytes("fourth")));
+        }
+
+        assertEquals(List.of("first", "second", "", "fourth"), replay(file));
+    }
+
+    @Test
+    void cutsTornTailAndAppendsAfterLastIntactRecord() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            log.append(List.of(bytes("first"), bytes("second")));
+        }
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            log.append(bytes("torn record"));
+        }
+        // Drop the last bytes of the payload, as a crash in the middle of a write would
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        assertEquals(List.of("first", "second"), replayAndAppend(file, "third"));
+        assertEquals(List.of("first", "second", "third"), replay(file));
+    }
+
+    @Test
+    void cutsTornHeader() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            log.append(bytes("first"));
+        }
+        Files.write(file, new byte[] {0, 0, 0}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("first"), replayAndAppend(file, "second"));
+        assertEquals(List.of("first", "second"), replay(file));
+    }
+
+    @Test
+    void cutsAtCorruptRecord() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            log.append(List.of(bytes("first"), bytes("second"), bytes("third")));
+        }
+        // Flip a byte of the second payload: header of 8 bytes, then "first", then the second header
+        long secondPayload = 8 + "first".length() + 8;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, secondPayload);
+            buffer.put(0, (byte) (buffer.get(0) ^ 0x01));
+            buffer.rewind();
+            channel.write(buffer, secondPayload);
+        }
+
+        // Everything from the corrupt record on is dropped, including the intact record after it
+        assertEquals(List.of("first"), replayAndAppend(file, "fourth"));
+        assertEquals(List.of("first", "fourth"), replay(file));
+    }
+
+    @Test
+    void cutsRecordWithImpossibleLength() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            log.append(bytes("first"));
+        }
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(Integer.MAX_VALUE).putInt(0);
+        Files.write(file, header.array(), StandardOpenOption.APPEND);
+
+        assertEquals(List.of("first"), replay(file));
+        assertEquals(8 + "first".length(), Files.size(file));
+    }
+
+    @Test
+    void resetEmptiesTheLog() throws IOException {
+        Path file = directory.resolve("test.log");
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 1)) {
+            log.append(List.of(bytes("first"), bytes("second")));
+            assertEquals(2, log.size());
+            log.reset();
+            assertEquals(0, log.size());
+            log.append(bytes("third"));
+        }
+
+        assertEquals(List.of("third"), replay(file));
+    }
+
+    /**
+     * Replays a log and returns its records as strings.
+     */
+    private static List<String> replay(Path file) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 0)) {
+            int count = log.replay(payload -> records.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(records.size(), count);
+            assertEquals(records.size(), log.size());
+        }
+        return records;
+    }
+
+    /**
+     * Replays a log, then appends a record to it, and returns the replayed records as strings.
+     */
+    private static List<String> replayAndAppend(Path file, String record) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (AppendOnlyLog log = new AppendOnlyLog(file, 1)) {
+            log.replay(payload -> records.add(new String(payload, StandardCharsets.UTF_8)));
+            log.append(bytes(record));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
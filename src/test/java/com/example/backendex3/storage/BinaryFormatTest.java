@@ -0,0 +1,212 @@
+package com.example.backendex3.storage;
+
+import com.example.backendex3.repositories.Score;
+import com.example.backendex3.repositories.WordEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFormatTest {
+
+    @TempDir
+    Path directory;
+
+    private static final List<WordEntry> WORDS = List.of(
+            new WordEntry(1L, 2L, "animals", "elephant", "Largest land animal"),
+            new WordEntry(-1L, Long.MIN_VALUE, "cities", "tel aviv", "Città sull'acqua, ירושלים"),
+            new WordEntry(0L, 0L, "empty", "a", ""));
+
+    @Test
+    void wordsRoundTrip() throws IOException {
+        Path file = directory.resolve("words.bin");
+        BinaryFormat.writeWords(file, WORDS, 42);
+
+        BinaryFormat.WordSnapshot snapshot = BinaryFormat.readWordSnapshot(file);
+        assertEquals(42, snapshot.getSequence());
+        assertWordsEqual(WORDS, snapshot.getWords());
+
+        List<WordEntry> streamed = new ArrayList<>();
+        BinaryFormat.forEachWord(file, streamed::add);
+        assertWordsEqual(WORDS, streamed);
+        assertFalse(Files.exists(directory.resolve("words.bin.tmp")));
+    }
+
+    @Test
+    void readsVersionOneWords() throws IOException {
+        Path file = directory.resolve("words.bin");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(BinaryFormat.WORDS_MAGIC);
+            out.writeInt(1);
+            out.writeInt(WORDS.size());
+            for (WordEntry entry : WORDS) {
+                out.writeLong(entry.getIdMostSignificantBits());
+                out.writeLong(entry.getIdLeastSignificantBits());
+                BinaryFormat.writeString(out, entry.getCategory());
+                BinaryFormat.writeString(out, entry.getWord());
+                BinaryFormat.writeString(out, entry.getHint());
+            }
+        }
+
+        BinaryFormat.WordSnapshot snapshot = BinaryFormat.readWordSnapshot(file);
+        assertEquals(0, snapshot.getSequence());
+        assertWordsEqual(WORDS, snapshot.getWords());
+
+        List<WordEntry> streamed = new ArrayList<>();
+        BinaryFormat.forEachWord(file, streamed::add);
+        assertWordsEqual(WORDS, streamed);
+    }
+
+    @Test
+    void scoresRoundTrip() throws IOException {
+        Path file = directory.resolve("scores.bin");
+        List<Score> scores = List.of(new Score("alice", 120), new Score("בוב", 0), new Score("carol", -5));
+        BinaryFormat.writeScores(file, scores);
+
+        assertScoresEqual(scores, BinaryFormat.readScores(file));
+    }
+
+    @Test
+    void longStringsRoundTrip() throws IOException {
+        // Lengths of 128 and more take several bytes of length prefix
+        String hint = "x".repeat(20_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryFormat.writeString(out, hint);
+            BinaryFormat.writeString(out, "x".repeat(127));
+            BinaryFormat.writeString(out, "x".repeat(128));
+        }
+        assertEquals(20_000 + 3 + 127 + 1 + 128 + 2, bytes.size());
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(hint, BinaryFormat.readString(in));
+            assertEquals("x".repeat(127), BinaryFormat.readString(in));
+            assertEquals("x".repeat(128), BinaryFormat.readString(in));
+        }
+    }
+
+    @Test
+    void rejectsOtherFilesAndNewerVersions() throws IOException {
+        Path scores = directory.resolve("scores.bin");
+        BinaryFormat.writeScores(scores, List.of(new Score("alice", 1)));
+        assertThrows(IOException.class, () -> BinaryFormat.readWords(scores));
+
+        Path future = directory.resolve("words.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(future))) {
+            out.writeInt(BinaryFormat.WORDS_MAGIC);
+            out.writeInt(BinaryFormat.WORDS_VERSION + 1);
+            out.writeInt(0);
+        }
+        IOException failure = assertThrows(IOException.class, () -> BinaryFormat.readWords(future));
+        assertTrue(failure.getMessage().contains("unsupported format version"));
+    }
+
+    @Test
+    void convertsLegacyWords() throws IOException {
+        Path source = directory.resolve("words.ser");
+        writeSerialized(source, new ArrayList<>(WORDS));
+
+        Path target = LegacyFormatConverter.binaryPathFor(source);
+        assertEquals(directory.resolve("words.bin"), target);
+        assertEquals(WORDS.size(), LegacyFormatConverter.convert(source, target));
+        assertWordsEqual(WORDS, BinaryFormat.readWords(target));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    void convertsWordsSerializedByTheOriginalClass() throws IOException {
+        Path source = copyResource("legacy/words.ser");
+        Path target = LegacyFormatConverter.binaryPathFor(source);
+        LegacyFormatConverter.convert(source, target);
+
+        List<WordEntry> words = BinaryFormat.readWords(target);
+        assertWordsEqual(LegacyFormatConverter.readLegacyWords(source), words);
+        WordEntry tiger = words.get(0);
+        assertEquals("bcfddaff-acfe-4d8f-aa7b-0de7354a1722", tiger.getId());
+        assertEquals("animals", tiger.getCategory());
+        assertEquals("tiger", tiger.getWord());
+        assertEquals("Big striped cat", tiger.getHint());
+    }
+
+    @Test
+    void convertsScoresSerializedByTheOriginalClass() throws IOException {
+        Path source = copyResource("legacy/scores.ser");
+        Path target = LegacyFormatConverter.binaryPathFor(source);
+        LegacyFormatConverter.convert(source, target);
+
+        List<Score> scores = BinaryFormat.readScores(target);
+        assertScoresEqual(LegacyFormatConverter.readLegacyScores(source), scores);
+        assertEquals(10, scores.size());
+        assertEquals("Champion1", scores.get(0).getNickname());
+        assertEquals("Newbie", scores.get(9).getNickname());
+    }
+
+    @Test
+    void convertsLegacyScores() throws IOException {
+        Path source = directory.resolve("scores.ser");
+        List<Score> scores = List.of(new Score("alice", 120), new Score("bob", 80));
+        writeSerialized(source, new ArrayList<>(scores));
+
+        Path target = LegacyFormatConverter.binaryPathFor(source);
+        assertEquals(scores.size(), LegacyFormatConverter.convert(source, target));
+        assertScoresEqual(scores, BinaryFormat.readScores(target));
+    }
+
+    @Test
+    void convertsEmptyLegacyFile() throws IOException {
+        Path source = directory.resolve("scores.ser");
+        Files.createFile(source);
+
+        assertTrue(LegacyFormatConverter.readLegacyScores(source).isEmpty());
+    }
+
+    @Test
+    void rejectsLegacyFileOfOtherObjects() throws IOException {
+        Path source = directory.resolve("other.ser");
+        writeSerialized(source, new ArrayList<>(List.of("not a word")));
+
+        assertThrows(IOException.class, () -> LegacyFormatConverter.convert(source, directory.resolve("other.bin")));
+    }
+
+    /**
+     * Copies a test resource to the temporary directory, so converted files are written next to it.
+     */
+    private Path copyResource(String name) throws IOException {
+        Path copy = directory.resolve(Path.of(name).getFileName().toString());
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(in, "Missing test resource " + name);
+            Files.copy(in, copy);
+        }
+        return copy;
+    }
+
+    private static void writeSerialized(Path file, Serializable content) throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(file))) {
+            out.writeObject(content);
+        }
+    }
+
+    private static void assertWordsEqual(List<WordEntry> expected, List<WordEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUuid(), actual.get(i).getUuid());
+            assertEquals(expected.get(i).getCategory(), actual.get(i).getCategory());
+            assertEquals(expected.get(i).getWord(), actual.get(i).getWord());
+            assertEquals(expected.get(i).getHint(), actual.get(i).getHint());
+        }
+    }
+
+    private static void assertScoresEqual(List<Score> expected, List<Score> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getNickname(), actual.get(i).getNickname());
+            assertEquals(expected.get(i).getScore(), actual.get(i).getScore());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.backendex3.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingWriterTest {
+
+    @Test
+    void syncWriteReturnsOnceTheRecordIsWritten() throws IOException {
+        List<byte[]> written = new ArrayList<>();
+        try (CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.SYNC, 100, 10, written::addAll)) {
+            writer.awaitWritten(writer.submit("alice", new byte[] {1}));
+        }
+        assertEquals(1, written.size());
+        assertArrayEquals(new byte[] {1}, written.get(0));
+    }
+
+    @Test
+    void syncWriteFailureIsReportedButTheAppliedChangeStays() throws IOException {
+        Map<String, Integer> state = new ConcurrentHashMap<>();
+        CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.SYNC, 100, 10, records -> {
+            throw new IOException("disk full");
+        });
+        try {
+            // Applied before it is submitted, as the repositories do
+            state.put("alice", 42);
+            CompletableFuture<Void> written = writer.submit("alice", new byte[] {42});
+
+            IOException failure = assertThrows(IOException.class, () -> writer.awaitWritten(written));
+            assertEquals("disk full", failure.getMessage());
+            assertEquals(42, state.get("alice"));
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void asyncWriteFailureIsReportedOnTheNextFlush() throws IOException {
+        CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.ASYNC, 100, 10, records -> {
+            throw new IOException("disk full");
+        });
+        CompletableFuture<Void> written = writer.submit("alice", new byte[] {1});
+        writer.awaitWritten(written);
+        assertThrows(IOException.class, writer::flush);
+        assertTrue(written.isCompletedExceptionally());
+        // The failure is reported again on close if it was first seen through the record's future
+        try {
+            writer.close();
+        }
+        catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+    }
+
+    @Test
+    void errorInTheSinkFailsEveryWaitingRecordAndStopsTheWriter() throws IOException {
+        CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.SYNC, 100, 10, records -> {
+            throw new OutOfMemoryError("sink");
+        });
+        CompletableFuture<Void> written = writer.submit("alice", new byte[] {1});
+
+        IOException failure = assertThrows(IOException.class, () -> writer.awaitWritten(written));
+        assertInstanceOf(OutOfMemoryError.class, failure.getCause());
+        // Once the thread has died, nothing would write a new record
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            try {
+                writer.submit("bob", new byte[] {2});
+            }
+            catch (IllegalStateException e) {
+                break;
+            }
+            assertTrue(System.nanoTime() < deadline, "Writer kept accepting records");
+        }
+        writer.close();
+    }
+
+    @Test
+    void recordsSubmittedDuringAWriteShareTheNextOne() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.SYNC, 100, 10, records -> {
+            batchSizes.add(records.size());
+            writing.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        })) {
+            CompletableFuture<Void> first = writer.submit("player0", new byte[] {0});
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // Each caller waits for its own record, as concurrent submitters do
+            ExecutorService callers = Executors.newFixedThreadPool(20);
+            try {
+                List<Future<?>> waits = new ArrayList<>();
+                for (int i = 1; i <= 20; i++) {
+                    CompletableFuture<Void> written = writer.submit("player" + i, new byte[] {(byte) i});
+                    waits.add(callers.submit(() -> {
+                        writer.awaitWritten(written);
+                        return null;
+                    }));
+                }
+                release.countDown();
+                writer.awaitWritten(first);
+                for (Future<?> wait : waits) {
+                    wait.get(5, TimeUnit.SECONDS);
+                }
+            }
+            finally {
+                callers.shutdownNow();
+            }
+        }
+        assertEquals(List.of(1, 20), batchSizes);
+    }
+
+    @Test
+    void latestRecordOfAKeyReplacesThePendingOne() throws IOException {
+        List<byte[]> written = new ArrayList<>();
+        try (CoalescingWriter<String> writer = new CoalescingWriter<>("test-writer", DurabilityMode.BATCHED, 60_000, 10, written::addAll)) {
+            writer.submit("alice", new byte[] {1});
+            writer.submit("bob", new byte[] {2});
+            writer.submit("alice", new byte[] {3});
+            writer.flush();
+        }
+        assertEquals(2, written.size());
+        assertArrayEquals(new byte[] {2}, written.get(0));
+        assertArrayEquals(new byte[] {3}, written.get(1));
+    }
+}